@@ -0,0 +1,117 @@
+package learn.jpa.benchmark;
+
+import learn.jpa.Application;
+import learn.jpa.model.Member;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10k ~ 1M 건의 Member 를 INSERT 할 때의 초당 처리 행 수(rows)를 비교한다.
+ * <p>
+ * identity: 기존 IDENTITY 전략. 행마다 INSERT 를 한 번씩 실행한다.
+ * pooled: 시퀀스(pooled-lo) + hibernate.jdbc.batch_size 배치 INSERT.
+ * <p>
+ * 호출마다 빈 테이블에 INSERT 하도록 호출 전에 테이블을 비우고(측정 시간에서 제외), InsertedRows 로 초당 행 수를 보고한다.
+ * <p>
+ * ./gradlew jmh -Pjmh.includes=BulkInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BulkInsertBenchmark {
+    private static final int FLUSH_SIZE = 1_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"identity", "pooled"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    // 회원 이름은 자연 키(유일)이므로 같은 반복 안의 호출마다 다른 이름을 사용한다
+    private long invocation;
+
+    // OPERATIONS: 측정 시간으로 나눈 값(rows/s)을 보고한다
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class InsertedRows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:bulk-insert",
+                            "spring.jpa.properties.hibernate.show_sql=false",
+                            "decorator.datasource.p6spy.enable-logging=false",
+                            "sql-metrics.enabled=false",
+                            "n-plus-one.mode=off",
+                            "logging.level.root=warn")
+                .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.createNativeQuery("TRUNCATE TABLE member").executeUpdate();
+            entityManager.createNativeQuery("TRUNCATE TABLE identity_member").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void insert(InsertedRows insertedRows) {
+        final long prefix = invocation++;
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(newMember(prefix, i));
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        insertedRows.rows += rows;
+    }
+
+    private Object newMember(long prefix, int i) {
+        String name = "member" + prefix + "-" + i;
+        if ("identity".equals(strategy)) {
+            return new IdentityMember(name, i % 100);
+        }
+        return Member.createMember(name, i % 100);
+    }
+}
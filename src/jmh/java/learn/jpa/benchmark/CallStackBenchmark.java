@@ -0,0 +1,104 @@
+package learn.jpa.benchmark;
+
+import learn.jpa.config.CallSiteResolver;
+import learn.jpa.config.SqlLoggingProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.MessageFormat;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.stream;
+
+/**
+ * 기존 Throwable 기반 콜 스택 생성과 {@link CallSiteResolver}를 10/50/200 프레임 깊이에서 비교한다.
+ * <p>
+ * learn.jpa 패키지의 프레임을 depth 만큼 쌓은 뒤 콜 스택 문자열을 만든다.
+ * 같은 양의 작업을 비교하도록 두 방식 모두 SQL 실행 지점에 가까운 depth 개의 프레임만 출력하고,
+ * {@link CallSiteResolver}는 호출 위치별 캐시를 사용하는 경우(cached)와 사용하지 않는 경우(uncached)를 따로 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CallStackBenchmark {
+    private static final String NEW_LINE = System.lineSeparator();
+
+    @Param({"10", "50", "200"})
+    private int depth;
+
+    @Benchmark
+    public String throwable() {
+        return recurse(depth, this::legacyStackBuilder);
+    }
+
+    @Benchmark
+    public String stackWalkerCached(Cached cached) {
+        return recurse(depth, () -> CallSiteResolver.getInstance().resolve());
+    }
+
+    @Benchmark
+    public String stackWalkerUncached(Uncached uncached) {
+        return recurse(depth, () -> CallSiteResolver.getInstance().resolve());
+    }
+
+    @State(Scope.Benchmark)
+    public static class Cached {
+        @Setup(Level.Trial)
+        public void setUp(CallStackBenchmark benchmark) {
+            configure(benchmark.depth, new SqlLoggingProperties.CallStack().getCacheSize());
+        }
+    }
+
+    // 캐시 상한이 0 이면 매번 포맷팅한다
+    @State(Scope.Benchmark)
+    public static class Uncached {
+        @Setup(Level.Trial)
+        public void setUp(CallStackBenchmark benchmark) {
+            configure(benchmark.depth, 0);
+        }
+    }
+
+    private static void configure(int depth, int cacheSize) {
+        SqlLoggingProperties.CallStack callStack = new SqlLoggingProperties.CallStack();
+        callStack.setDepth(depth);
+        callStack.setCacheSize(cacheSize);
+        CallSiteResolver.getInstance().configure(callStack);
+    }
+
+    private String recurse(int remaining, CallStackSupplier supplier) {
+        if (remaining <= 1) {
+            return supplier.get();
+        }
+        return recurse(remaining - 1, supplier);
+    }
+
+    // P6spyPrettySqlFormatter 의 기존 구현(CallSiteResolver 와 같은 깊이에서 자름)
+    private String legacyStackBuilder() {
+        final Stack<String> callStack = new Stack<>();
+        stream(new Throwable().getStackTrace())
+                .map(StackTraceElement::toString)
+                .filter(charSequence -> charSequence.startsWith("learn.jpa") && !charSequence.contains("P6spyPrettySqlFormatter"))
+                .limit(depth)
+                .forEach(callStack::push);
+
+        int order = 1;
+        final StringBuilder callStackBuilder = new StringBuilder();
+        while (!callStack.empty()) {
+            callStackBuilder.append(MessageFormat.format("{0}\t\t{1}. {2}", NEW_LINE, order++, callStack.pop()));
+        }
+        return callStackBuilder.toString();
+    }
+
+    @FunctionalInterface
+    private interface CallStackSupplier {
+        String get();
+    }
+}
@@ -0,0 +1,28 @@
+package learn.jpa.benchmark;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * 식별자 전략을 시퀀스로 바꾸기 전(IDENTITY)의 Member 매핑. {@link BulkInsertBenchmark}의 비교 대상이다.
+ */
+@Entity
+public class IdentityMember {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+
+    private int age;
+
+    protected IdentityMember() {
+    }
+
+    public IdentityMember(String name, int age) {
+        this.name = name;
+        this.age = age;
+    }
+}
@@ -0,0 +1,103 @@
+package learn.jpa.benchmark;
+
+import learn.jpa.Application;
+import learn.jpa.model.Member;
+import learn.jpa.repository.MemberRepository;
+import learn.jpa.transaction.service.TestService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 스레드가 소수의 회원 나이를 동시에 증가시킬 때 SERIALIZABLE 과 낙관적 락(@Version + 재시도)의 처리량을 비교한다.
+ * <p>
+ * hotMembers 가 작을수록 경합이 심하다. SERIALIZABLE 은 충돌하면 예외로 실패하므로 성공/실패 횟수를 따로 기록한다.
+ * <p>
+ * ./gradlew jmh -Pjmh.includes=OptimisticLockBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(8)
+public class OptimisticLockBenchmark {
+    @Param({"optimistic", "serializable"})
+    private String mode;
+
+    @Param({"1", "16"})
+    private int hotMembers;
+
+    private ConfigurableApplicationContext context;
+    private TestService testService;
+    private List<Long> memberIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:optimistic-lock",
+                            "spring.datasource.hikari.maximum-pool-size=16",
+                            "spring.jpa.properties.hibernate.show_sql=false",
+                            "decorator.datasource.p6spy.enable-logging=false",
+                            "sql-metrics.enabled=false",
+                            "n-plus-one.mode=off",
+                            "logging.level.root=warn")
+                .run();
+        testService = context.getBean(TestService.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        memberIds = new ArrayList<>();
+        for (int i = 0; i < hotMembers; i++) {
+            memberIds.add(memberRepository.save(Member.createMember("member-" + UUID.randomUUID(), 0)).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public long succeeded;
+        public long failed;
+    }
+
+    @Benchmark
+    public void increaseAge(Outcome outcome) {
+        Long memberId = memberIds.get(ThreadLocalRandom.current().nextInt(memberIds.size()));
+        try {
+            if ("optimistic".equals(mode)) {
+                testService.increaseAgeOptimistic(memberId);
+            }
+            else {
+                testService.increaseAgeSerializable(memberId);
+            }
+            outcome.succeeded++;
+        }
+        catch (RuntimeException e) {
+            outcome.failed++;
+        }
+    }
+}
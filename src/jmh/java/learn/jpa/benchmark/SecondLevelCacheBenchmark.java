@@ -0,0 +1,135 @@
+package learn.jpa.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import learn.jpa.Application;
+import learn.jpa.model.Member;
+import learn.jpa.model.Team;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static learn.jpa.model.QMember.member;
+import static learn.jpa.model.QTeam.team;
+
+/**
+ * MemberQueryRepositoryTest 의 조회 시나리오를 2차 캐시 사용 여부에 따라 비교한다.
+ * <p>
+ * 매 호출마다 새 트랜잭션(영속성 컨텍스트)에서 조회하므로 1차 캐시의 영향은 없다.
+ * <p>
+ * ./gradlew jmh -Pjmh.includes=SecondLevelCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SecondLevelCacheBenchmark {
+    private static final int TEAMS = 10;
+    private static final int MEMBERS = 1_000;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> memberIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:second-level-cache",
+                            "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                            "spring.jpa.properties.hibernate.show_sql=false",
+                            "decorator.datasource.p6spy.enable-logging=false",
+                            "sql-metrics.enabled=false",
+                            "n-plus-one.mode=off",
+                            "logging.level.root=warn")
+                .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        memberIds = transactionTemplate.execute(status -> {
+            EntityManager entityManager = entityManager();
+            Team[] teams = new Team[TEAMS];
+            for (int i = 0; i < TEAMS; i++) {
+                teams[i] = new Team("team" + i);
+            }
+            for (int i = 0; i < MEMBERS; i++) {
+                Member member = Member.createMember("member" + i, i % 100);
+                member.changeTeam(teams[i % TEAMS]);
+                entityManager.persist(member);
+            }
+            entityManager.flush();
+            return new JPAQueryFactory(entityManager).select(member.id).from(member).limit(100).fetch();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // join: 회원 목록 조회 후 지연 로딩으로 팀 이름에 접근
+    @Benchmark
+    public long lazyTeam() {
+        return transactionTemplate.execute(status -> {
+            long length = 0;
+            for (Member found : new JPAQueryFactory(entityManager()).selectFrom(member).where(member.id.in(memberIds)).fetch()) {
+                length += found.getTeam().getName().length();
+            }
+            return length;
+        });
+    }
+
+    // fetchJoin: 한 번의 쿼리로 팀까지 조회(2차 캐시와 무관한 기준값)
+    @Benchmark
+    public long fetchJoin() {
+        return transactionTemplate.execute(status -> {
+            long length = 0;
+            for (Member found : new JPAQueryFactory(entityManager()).selectFrom(member)
+                                                                     .join(member.team, team).fetchJoin()
+                                                                     .where(member.id.in(memberIds))
+                                                                     .fetch()) {
+                length += found.getTeam().getName().length();
+            }
+            return length;
+        });
+    }
+
+    // findById: 식별자로 회원과 팀 조회
+    @Benchmark
+    public long findById() {
+        return transactionTemplate.execute(status -> {
+            EntityManager entityManager = entityManager();
+            long length = 0;
+            for (Long id : memberIds) {
+                length += entityManager.find(Member.class, id).getTeam().getName().length();
+            }
+            return length;
+        });
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,17 @@
+package learn.jpa.async;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AsyncEndpointProperties.class)
+public class AsyncEndpointConfig {
+    @Bean
+    public EndpointExecutor endpointExecutor(AsyncEndpointProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new EndpointExecutor(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,35 @@
+package learn.jpa.async;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "async-endpoints")
+public class AsyncEndpointProperties {
+    // JDK 21 이상에서 실행하면 가상 스레드를 사용
+    private boolean virtualThreads = true;
+    private Limits defaults = new Limits();
+    // 엔드포인트 이름별 설정, 없으면 defaults
+    private Map<String, Limits> endpoints = new HashMap<>();
+
+    public Limits getLimits(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+        // 동시에 실행할 수 있는 요청 수
+        private int maxConcurrency = 8;
+        // 실행을 기다릴 수 있는 요청 수, 넘으면 503
+        private int queueCapacity = 32;
+        // 대기 시간을 포함한 최대 처리 시간, 넘으면 504
+        private Duration timeout = Duration.ofMinutes(2);
+    }
+}
@@ -0,0 +1,152 @@
+package learn.jpa.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 블로킹 작업을 하는 엔드포인트를 서블릿 스레드가 아닌 엔드포인트별 실행기에서 처리한다.
+ * <p>
+ * 엔드포인트마다 동시 실행 수와 대기열 크기를 제한(벌크헤드)하므로 느린 외부 호출이 다른 엔드포인트의 스레드를 점유하지 않는다.
+ * 대기열이 가득 차면 503, 제한 시간을 넘기면 실행 중인 작업을 인터럽트하고 504 로 응답한다.
+ * <p>
+ * 지표: endpoint.queue.time, endpoint.execution.time, endpoint.active, endpoint.queued, endpoint.rejected (tag: endpoint)
+ *
+ * <pre>
+ * &#64;GetMapping("/test")
+ * public CompletableFuture&lt;String&gt; test() {
+ *     return endpointExecutor.submit("test", testService::testService);
+ * }
+ * </pre>
+ */
+@Slf4j
+public class EndpointExecutor implements DisposableBean {
+    private final AsyncEndpointProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadFactory virtualThreadFactory;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public EndpointExecutor(AsyncEndpointProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.virtualThreadFactory = properties.isVirtualThreads() ? virtualThreadFactory() : null;
+    }
+
+    public <T> CompletableFuture<T> submit(String endpoint, Callable<T> task) {
+        return bulkheads.computeIfAbsent(endpoint, this::createBulkhead).submit(task);
+    }
+
+    @Override
+    public void destroy() {
+        bulkheads.values().forEach(bulkhead -> bulkhead.executor.shutdownNow());
+    }
+
+    private Bulkhead createBulkhead(String endpoint) {
+        AsyncEndpointProperties.Limits limits = properties.getLimits(endpoint);
+        ThreadFactory threadFactory = virtualThreadFactory != null
+                                      ? virtualThreadFactory
+                                      : new CustomizableThreadFactory("endpoint-" + endpoint + "-");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(limits.getMaxConcurrency(), limits.getMaxConcurrency(),
+                                                             60, TimeUnit.SECONDS,
+                                                             new ArrayBlockingQueue<>(limits.getQueueCapacity()),
+                                                             threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        Gauge.builder("endpoint.active", executor, ThreadPoolExecutor::getActiveCount).tag("endpoint", endpoint).register(meterRegistry);
+        Gauge.builder("endpoint.queued", executor, e -> e.getQueue().size()).tag("endpoint", endpoint).register(meterRegistry);
+        return new Bulkhead(endpoint, executor, limits.getTimeout(),
+                            Timer.builder("endpoint.queue.time").tag("endpoint", endpoint).register(meterRegistry),
+                            Timer.builder("endpoint.execution.time").tag("endpoint", endpoint).register(meterRegistry),
+                            Counter.builder("endpoint.rejected").tag("endpoint", endpoint).register(meterRegistry));
+    }
+
+    // 소스 호환성(Java 11)을 위해 Thread.ofVirtual() 을 리플렉션으로 호출한다
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            log.info("Async endpoints run on virtual threads");
+            return (ThreadFactory) factory.invoke(builder);
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static class Bulkhead {
+        private final String endpoint;
+        private final ThreadPoolExecutor executor;
+        private final Duration timeout;
+        private final Timer queueTime;
+        private final Timer executionTime;
+        private final Counter rejected;
+
+        private Bulkhead(String endpoint, ThreadPoolExecutor executor, Duration timeout, Timer queueTime, Timer executionTime, Counter rejected) {
+            this.endpoint = endpoint;
+            this.executor = executor;
+            this.timeout = timeout;
+            this.queueTime = queueTime;
+            this.executionTime = executionTime;
+            this.rejected = rejected;
+        }
+
+        private <T> CompletableFuture<T> submit(Callable<T> task) {
+            final long submitted = System.nanoTime();
+            final CompletableFuture<T> result = new CompletableFuture<>();
+            final Future<?> running;
+            try {
+                running = executor.submit(() -> {
+                    final long started = System.nanoTime();
+                    queueTime.record(started - submitted, TimeUnit.NANOSECONDS);
+                    if (result.isDone()) {
+                        return;
+                    }
+                    try {
+                        result.complete(task.call());
+                    }
+                    catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                    finally {
+                        executionTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw new EndpointRejectedException(endpoint);
+            }
+            return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                         .whenComplete((value, e) -> {
+                             if (e != null) {
+                                 running.cancel(true);
+                             }
+                         })
+                         .exceptionally(e -> {
+                             Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                             if (cause instanceof TimeoutException) {
+                                 throw new EndpointTimeoutException(endpoint, timeout, cause);
+                             }
+                             throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+                         });
+        }
+    }
+}
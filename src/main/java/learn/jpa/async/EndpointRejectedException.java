@@ -0,0 +1,11 @@
+package learn.jpa.async;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class EndpointRejectedException extends RuntimeException {
+    public EndpointRejectedException(String endpoint) {
+        super("Too many concurrent requests: " + endpoint);
+    }
+}
@@ -0,0 +1,13 @@
+package learn.jpa.async;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class EndpointTimeoutException extends RuntimeException {
+    public EndpointTimeoutException(String endpoint, Duration timeout, Throwable cause) {
+        super(String.format("%s did not complete within %s", endpoint, timeout), cause);
+    }
+}
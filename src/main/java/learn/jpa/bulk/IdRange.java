@@ -0,0 +1,35 @@
+package learn.jpa.bulk;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 식별자 구간 [from, to]
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class IdRange {
+    private final long from;
+    private final long to;
+
+    public static List<IdRange> split(long min, long max, long rangeSize) {
+        if (rangeSize < 1) {
+            throw new IllegalArgumentException("rangeSize must be positive: " + rangeSize);
+        }
+        List<IdRange> ranges = new ArrayList<>();
+        for (long from = min; from <= max; from += rangeSize) {
+            ranges.add(new IdRange(from, Math.min(max, from + rangeSize - 1)));
+            if (from > Long.MAX_VALUE - rangeSize) {
+                break;
+            }
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,22 @@
+package learn.jpa.bulk;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.Duration;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class IngestResult {
+    private final long rows;
+    private final long createdTeams;
+    private final long chunks;
+    private final Duration elapsed;
+
+    public double getRowsPerSecond() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? rows : rows * 1_000.0 / millis;
+    }
+}
@@ -0,0 +1,122 @@
+package learn.jpa.bulk;
+
+import learn.jpa.model.Member;
+import learn.jpa.model.Team;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 대량의 회원을 청크 단위로 적재한다.
+ * <p>
+ * saveAll 은 모든 엔티티를 커밋 시점까지 영속성 컨텍스트에 보관하므로 입력 크기만큼 메모리를 사용한다.
+ * 이 서비스는 청크마다 별도의 트랜잭션에서 flush, clear 하여 영속성 컨텍스트의 크기를 청크 크기로 제한한다.
+ * <p>
+ * 팀은 회원마다 PERSIST 를 전파하지 않고, 팀 이름 -> 식별자 캐시로 찾아 {@link EntityManager#getReference}로 연결한다.
+ */
+@Slf4j
+@Service
+public class MemberBulkIngestService {
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberBulkIngestService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public IngestResult ingest(Stream<MemberImport> members) {
+        return ingest(members, DEFAULT_CHUNK_SIZE);
+    }
+
+    public IngestResult ingest(Stream<MemberImport> members, int chunkSize) {
+        try (members) {
+            return ingest(members.iterator(), chunkSize);
+        }
+    }
+
+    public IngestResult ingest(Iterator<MemberImport> members, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        final long start = System.nanoTime();
+        final Map<String, Long> teamIds = new HashMap<>();
+        final List<MemberImport> chunk = new ArrayList<>(chunkSize);
+        long rows = 0;
+        long chunks = 0;
+        long createdTeams = 0;
+        while (members.hasNext()) {
+            chunk.add(members.next());
+            if (chunk.size() == chunkSize || !members.hasNext()) {
+                createdTeams += writeChunk(chunk, teamIds);
+                rows += chunk.size();
+                chunks++;
+                chunk.clear();
+            }
+        }
+        final IngestResult result = new IngestResult(rows, createdTeams, chunks, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Ingested {} members in {} chunks ({} new teams, {} rows/s)", rows, chunks, createdTeams, String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * @return 새로 저장한 팀 개수
+     */
+    private long writeChunk(List<MemberImport> chunk, Map<String, Long> teamIds) {
+        final Map<String, Long> createdTeamIds = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (MemberImport row : chunk) {
+                    Member member = Member.createMember(row.getName(), row.getAge());
+                    if (row.getTeamName() != null) {
+                        member.changeTeam(resolveTeam(row.getTeamName(), teamIds, createdTeamIds));
+                    }
+                    entityManager.persist(member);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        catch (RuntimeException e) {
+            // 롤백된 청크에서 만든 팀은 캐시에서 제거한다
+            createdTeamIds.keySet().forEach(teamIds::remove);
+            throw e;
+        }
+        return createdTeamIds.size();
+    }
+
+    private Team resolveTeam(String teamName, Map<String, Long> teamIds, Map<String, Long> createdTeamIds) {
+        Long teamId = teamIds.computeIfAbsent(teamName, this::findTeamId);
+        if (teamId != null) {
+            return entityManager.getReference(Team.class, teamId);
+        }
+        Team team = new Team(teamName);
+        entityManager.persist(team);
+        teamIds.put(teamName, team.getId());
+        createdTeamIds.put(teamName, team.getId());
+        return team;
+    }
+
+    private Long findTeamId(String teamName) {
+        return entityManager.createQuery("select t.id from Team t where t.name = :name", Long.class)
+                            .setParameter("name", teamName)
+                            .setMaxResults(1)
+                            .getResultStream()
+                            .findFirst()
+                            .orElse(null);
+    }
+}
@@ -0,0 +1,22 @@
+package learn.jpa.bulk;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 적재할 회원 한 건. 팀은 이름으로 참조한다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberImport {
+    private final String name;
+    private final int age;
+    private final String teamName;
+
+    public static MemberImport of(String name, int age, String teamName) {
+        return new MemberImport(name, age, teamName);
+    }
+}
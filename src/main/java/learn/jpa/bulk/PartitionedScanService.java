@@ -0,0 +1,187 @@
+package learn.jpa.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.metamodel.EntityType;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 테이블을 식별자 구간으로 나누어 여러 커넥션에서 병렬로 읽는다.
+ * <p>
+ * min/max 식별자로 구간을 나누고, 구간마다 별도의 EntityManager(커넥션)로 조회한다.
+ * 작업 스레드 수는 CPU 코어 수와 커넥션 풀 크기 중 작은 값이며, 다른 요청을 위해 커넥션 하나를 남겨둔다.
+ * 동시에 조회 중이거나 처리를 기다리는 구간은 작업 스레드 수의 2배로 제한하여 메모리 사용량을 제한한다.
+ */
+@Slf4j
+@Service
+public class PartitionedScanService {
+    public static final int DEFAULT_RANGE_SIZE = 1_000;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    public PartitionedScanService(EntityManagerFactory entityManagerFactory,
+                                  @Value("${partitioned-scan.parallelism:0}") int parallelism,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.parallelism = parallelism > 0
+                           ? parallelism
+                           : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), maximumPoolSize - 1));
+        this.workers = Executors.newFixedThreadPool(this.parallelism, new CustomizableThreadFactory("partitioned-scan-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public <T> ScanResult scan(Class<T> entityClass, ScanCompletion completion, ScanCallback<T> callback) {
+        return scan(entityClass, DEFAULT_RANGE_SIZE, completion, callback);
+    }
+
+    public <T> ScanResult scan(Class<T> entityClass, long rangeSize, ScanCompletion completion, ScanCallback<T> callback) {
+        final long start = System.nanoTime();
+        final EntityType<T> entityType = entityManagerFactory.getMetamodel().entity(entityClass);
+        final String idName = entityType.getId(Long.class).getName();
+        final String jpql = String.format("select e from %s e where e.%s between :from and :to order by e.%s",
+                                          entityType.getName(), idName, idName);
+
+        final List<IdRange> partitions = bounds(entityType.getName(), idName)
+                .map(bounds -> IdRange.split(bounds.getFrom(), bounds.getTo(), rangeSize))
+                .orElse(List.of());
+        final long rows = completion == ScanCompletion.ORDERED
+                          ? scanOrdered(entityClass, jpql, partitions, callback)
+                          : scanUnordered(entityClass, jpql, partitions, callback);
+
+        final ScanResult result = new ScanResult(rows, partitions.size(), parallelism, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Scanned {} {} rows in {} ranges with {} workers ({} rows/s)", rows, entityType.getName(), partitions.size(), parallelism,
+                 String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    private <T> long scanOrdered(Class<T> entityClass, String jpql, List<IdRange> partitions, ScanCallback<T> callback) {
+        final Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+        final Iterator<IdRange> pending = partitions.iterator();
+        final Deque<IdRange> inFlightRanges = new ArrayDeque<>();
+        long rows = 0;
+        try {
+            while (pending.hasNext() || !inFlight.isEmpty()) {
+                while (pending.hasNext() && inFlight.size() < parallelism * 2) {
+                    IdRange range = pending.next();
+                    inFlightRanges.add(range);
+                    inFlight.add(workers.submit(() -> read(entityClass, jpql, range)));
+                }
+                List<T> result = await(inFlight.poll());
+                callback.accept(inFlightRanges.poll(), result);
+                rows += result.size();
+            }
+            return rows;
+        }
+        finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> long scanUnordered(Class<T> entityClass, String jpql, List<IdRange> partitions, ScanCallback<T> callback) {
+        final CompletionService<Integer> completionService = new ExecutorCompletionService<>(workers);
+        final Deque<Future<Integer>> submitted = new ArrayDeque<>();
+        final Iterator<IdRange> pending = partitions.iterator();
+        int inFlight = 0;
+        long rows = 0;
+        try {
+            while (pending.hasNext() || inFlight > 0) {
+                while (pending.hasNext() && inFlight < parallelism * 2) {
+                    IdRange range = pending.next();
+                    submitted.add(completionService.submit(() -> {
+                        List<T> result = read(entityClass, jpql, range);
+                        callback.accept(range, result);
+                        return result.size();
+                    }));
+                    inFlight++;
+                }
+                rows += await(completionService.take());
+                inFlight--;
+            }
+            return rows;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partitioned scan interrupted", e);
+        }
+        finally {
+            submitted.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> List<T> read(Class<T> entityClass, String jpql, IdRange range) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        final EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            List<T> rows = entityManager.createQuery(jpql, entityClass)
+                                        .setParameter("from", range.getFrom())
+                                        .setParameter("to", range.getTo())
+                                        .setHint(QueryHints.HINT_READONLY, true)
+                                        .getResultList();
+            transaction.commit();
+            return rows;
+        }
+        finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            entityManager.close();
+        }
+    }
+
+    private Optional<IdRange> bounds(String entityName, String idName) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Object[] bounds = entityManager.createQuery(String.format("select min(e.%s), max(e.%s) from %s e", idName, idName, entityName), Object[].class)
+                                           .getSingleResult();
+            if (bounds[0] == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new IdRange(((Number) bounds[0]).longValue(), ((Number) bounds[1]).longValue()));
+        }
+        finally {
+            entityManager.close();
+        }
+    }
+
+    private static <V> V await(Future<V> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partitioned scan interrupted", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
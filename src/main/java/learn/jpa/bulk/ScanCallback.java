@@ -0,0 +1,11 @@
+package learn.jpa.bulk;
+
+import java.util.List;
+
+/**
+ * 구간별 조회 결과를 처리한다. 엔티티는 준영속 상태로 전달된다.
+ */
+@FunctionalInterface
+public interface ScanCallback<T> {
+    void accept(IdRange range, List<T> rows);
+}
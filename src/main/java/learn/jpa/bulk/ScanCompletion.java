@@ -0,0 +1,8 @@
+package learn.jpa.bulk;
+
+public enum ScanCompletion {
+    // 호출 스레드에서 구간 순서대로 콜백 호출
+    ORDERED,
+    // 조회가 끝난 구간부터 작업 스레드에서 콜백 호출(콜백은 스레드 안전해야 한다)
+    UNORDERED
+}
@@ -0,0 +1,47 @@
+package learn.jpa.config;
+
+import com.p6spy.engine.logging.Category;
+import com.p6spy.engine.spy.appender.P6Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 비동기 SQL 로깅용 P6spy Appender.
+ * <p>
+ * JDBC 스레드에서는 원본 SQL, 실행 시간, 호출 위치만 캡처하고 나머지는 {@link SqlLogPipeline}에 위임한다.
+ */
+public class AsyncSqlLogger implements P6Logger {
+    private final Logger log = LoggerFactory.getLogger("p6spy");
+
+    @Override
+    public void logSQL(final int connectionId, final String now, final long elapsed, final Category category, final String prepared, final String sql, final String url) {
+        if (sql == null || sql.trim().isEmpty() || !SqlLogSampler.getInstance().shouldLog(prepared, elapsed)) {
+            return;
+        }
+        SqlLogPipeline.getInstance().offer(new SqlLogEvent(connectionId, elapsed, category.getName(), prepared, sql, CallSiteResolver.getInstance().capture()));
+    }
+
+    @Override
+    public void logException(final Exception e) {
+        log.info("", e);
+    }
+
+    @Override
+    public void logText(final String text) {
+        log.info(text);
+    }
+
+    @Override
+    public boolean isCategoryEnabled(final Category category) {
+        if (Category.ERROR.equals(category)) {
+            return log.isErrorEnabled();
+        }
+        if (Category.WARN.equals(category)) {
+            return log.isWarnEnabled();
+        }
+        if (Category.DEBUG.equals(category)) {
+            return log.isDebugEnabled();
+        }
+        return log.isInfoEnabled();
+    }
+}
@@ -0,0 +1,60 @@
+package learn.jpa.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SQL 을 실행한 호출 위치의 지문(fingerprint).
+ * <p>
+ * 클래스명, 메서드명, 바이트코드 인덱스로만 동등성을 비교하므로 같은 위치에서 실행된 SQL 은 같은 키를 갖는다.
+ */
+public final class CallSite {
+    private final List<StackWalker.StackFrame> frames;
+    private final String[] classNames;
+    private final String[] methodNames;
+    private final int[] byteCodeIndexes;
+    private final int hash;
+
+    CallSite(final List<StackWalker.StackFrame> frames) {
+        this.frames = frames;
+        this.classNames = new String[frames.size()];
+        this.methodNames = new String[frames.size()];
+        this.byteCodeIndexes = new int[frames.size()];
+        for (int i = 0; i < frames.size(); i++) {
+            StackWalker.StackFrame frame = frames.get(i);
+            classNames[i] = frame.getClassName();
+            methodNames[i] = frame.getMethodName();
+            byteCodeIndexes[i] = frame.getByteCodeIndex();
+        }
+        this.hash = 31 * (31 * Arrays.hashCode(classNames) + Arrays.hashCode(methodNames)) + Arrays.hashCode(byteCodeIndexes);
+    }
+
+    // 가장 안쪽(SQL 실행 지점에 가까운) 프레임이 0번
+    List<StackWalker.StackFrame> getFrames() {
+        return frames;
+    }
+
+    public boolean isEmpty() {
+        return frames.isEmpty();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CallSite)) {
+            return false;
+        }
+        CallSite callSite = (CallSite) o;
+        return hash == callSite.hash
+                && Arrays.equals(byteCodeIndexes, callSite.byteCodeIndexes)
+                && Arrays.equals(methodNames, callSite.methodNames)
+                && Arrays.equals(classNames, callSite.classNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
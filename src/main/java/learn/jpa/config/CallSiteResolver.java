@@ -0,0 +1,87 @@
+package learn.jpa.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * {@link StackWalker}로 learn.jpa 패키지의 프레임만 지연 필터링하여 호출 위치를 찾는다.
+ * <p>
+ * 설정한 깊이만큼 프레임을 찾으면 스택 탐색을 멈추며, 포맷팅된 콜 스택 문자열은 {@link CallSite} 단위로 캐싱한다.
+ * <p>
+ * P6spy 의 포맷터와 Appender 가 리플렉션으로 생성되기 때문에 싱글톤으로 관리한다.
+ */
+public class CallSiteResolver {
+    private static final CallSiteResolver INSTANCE = new CallSiteResolver();
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final String PACKAGE = "learn.jpa";
+    private static final String CONFIG_PACKAGE = "learn.jpa.config";
+    private static final String MONITOR_PACKAGE = "learn.jpa.monitor";
+
+    private final StackWalker stackWalker = StackWalker.getInstance();
+    private final Map<CallSite, String> cache = new ConcurrentHashMap<>();
+
+    private volatile int depth = new SqlLoggingProperties().getCallStack().getDepth();
+    private volatile int cacheSize = new SqlLoggingProperties().getCallStack().getCacheSize();
+
+    private CallSiteResolver() {
+    }
+
+    public static CallSiteResolver getInstance() {
+        return INSTANCE;
+    }
+
+    public void configure(final SqlLoggingProperties.CallStack properties) {
+        this.depth = properties.getDepth();
+        this.cacheSize = properties.getCacheSize();
+        this.cache.clear();
+    }
+
+    public String resolve() {
+        return format(capture());
+    }
+
+    // JDBC 스레드에서 호출되므로 문자열 변환 없이 프레임만 수집한다
+    public CallSite capture() {
+        return new CallSite(stackWalker.walk(frames -> frames
+                .filter(frame -> isApplicationFrame(frame.getClassName()))
+                .limit(depth)
+                .collect(Collectors.toList())));
+    }
+
+    // SQL 로깅, 모니터링 인프라 자체의 프레임은 제외한다
+    private boolean isApplicationFrame(final String className) {
+        return className.startsWith(PACKAGE) && !className.startsWith(CONFIG_PACKAGE) && !className.startsWith(MONITOR_PACKAGE);
+    }
+
+    public String format(final CallSite callSite) {
+        String callStack = cache.get(callSite);
+        if (callStack != null) {
+            return callStack;
+        }
+        callStack = doFormat(callSite);
+        // 호출 위치는 코드상의 위치 개수만큼만 존재하므로 상한에 도달하면 더 이상 캐싱하지 않는다
+        if (cache.size() < cacheSize) {
+            cache.putIfAbsent(callSite, callStack);
+        }
+        return callStack;
+    }
+
+    // 1번이 진입점이 되도록 가장 바깥쪽 프레임부터 출력한다
+    private String doFormat(final CallSite callSite) {
+        int order = 1;
+        final StringBuilder callStackBuilder = new StringBuilder();
+        for (int i = callSite.getFrames().size() - 1; i >= 0; i--) {
+            callStackBuilder.append(NEW_LINE)
+                            .append("\t\t")
+                            .append(order++)
+                            .append(". ")
+                            .append(callSite.getFrames().get(i).toStackTraceElement());
+        }
+        return callStackBuilder.toString();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+}
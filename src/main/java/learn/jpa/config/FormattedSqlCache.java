@@ -0,0 +1,159 @@
+package learn.jpa.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.engine.jdbc.internal.FormatStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prepared Statement 의 SQL 문자열(?가 포함된 원본)을 키로 포맷팅 결과를 캐싱한다.
+ * <p>
+ * 같은 Prepared Statement 는 파라미터만 다르게 반복 실행되므로, 포맷팅은 최초 1회만 하고
+ * 실행된 SQL 에서 추출한 파라미터를 포맷팅된 템플릿의 ? 자리에 채워 넣는다.
+ * 실행된 SQL 과 Prepared Statement 를 맞춰볼 수 없는 경우에는 캐시를 사용하지 않고 바로 포맷팅한다.
+ * <p>
+ * 캐시는 Caffeine(W-TinyLFU)을 사용하며 키와 값의 문자 수 합계로 크기를 제한한다.
+ */
+public class FormattedSqlCache {
+    private static final FormattedSqlCache INSTANCE = new FormattedSqlCache();
+    private static final char PLACEHOLDER = '?';
+    private static final char QUOTE = '\'';
+
+    // 메트릭이 바인딩된 인스턴스가 교체되지 않도록 캐시는 한 번만 만들고 설정은 크기만 바꾼다
+    private final Cache<String, String> cache = createCache(new SqlLoggingProperties.FormatCache());
+    private volatile boolean enabled = true;
+
+    private FormattedSqlCache() {
+    }
+
+    public static FormattedSqlCache getInstance() {
+        return INSTANCE;
+    }
+
+    public void configure(final SqlLoggingProperties.FormatCache properties) {
+        this.enabled = properties.isEnabled();
+        cache.invalidateAll();
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(properties.getMaxWeight()));
+    }
+
+    private static Cache<String, String> createCache(final SqlLoggingProperties.FormatCache properties) {
+        return Caffeine.newBuilder()
+                       .maximumWeight(properties.getMaxWeight())
+                       .weigher((String prepared, String formatted) -> prepared.length() + formatted.length())
+                       .recordStats()
+                       .build();
+    }
+
+    public String format(final String prepared, final String sql) {
+        if (!enabled || prepared == null || prepared.isEmpty()) {
+            return formatBasic(sql);
+        }
+        final List<String> parameters = extractParameters(prepared, sql);
+        if (parameters == null) {
+            return formatBasic(sql);
+        }
+        final String formatted = bind(cache.get(prepared, FormattedSqlCache::formatBasic), parameters);
+        return formatted == null ? formatBasic(sql) : formatted;
+    }
+
+    public Cache<String, String> getCache() {
+        return cache;
+    }
+
+    private static String formatBasic(final String sql) {
+        return upper(FormatStyle.BASIC.getFormatter().format(sql));
+    }
+
+    private static String upper(final String sql) {
+        return sql.toUpperCase(Locale.ROOT).replace("+0900", "");
+    }
+
+    /**
+     * Prepared Statement 와 실행된 SQL 을 앞에서부터 맞춰보며 ? 자리에 들어간 값을 추출한다.
+     *
+     * @return 두 문자열이 맞지 않으면 null
+     */
+    static List<String> extractParameters(final String prepared, final String sql) {
+        final List<String> parameters = new ArrayList<>();
+        boolean quoted = false;
+        int sqlIndex = 0;
+        for (int i = 0; i < prepared.length(); i++) {
+            final char c = prepared.charAt(i);
+            if (c == PLACEHOLDER && !quoted) {
+                final int end = parameterEnd(sql, sqlIndex);
+                if (end < 0) {
+                    return null;
+                }
+                parameters.add(sql.substring(sqlIndex, end));
+                sqlIndex = end;
+                continue;
+            }
+            if (sqlIndex >= sql.length() || sql.charAt(sqlIndex) != c) {
+                return null;
+            }
+            if (c == QUOTE) {
+                quoted = !quoted;
+            }
+            sqlIndex++;
+        }
+        return sqlIndex == sql.length() ? parameters : null;
+    }
+
+    // P6spy 는 문자열, 날짜를 '...'로 감싸고 숫자, NULL 등은 그대로 출력한다
+    private static int parameterEnd(final String sql, final int start) {
+        if (start >= sql.length()) {
+            return -1;
+        }
+        if (sql.charAt(start) == QUOTE) {
+            for (int i = start + 1; i < sql.length(); i++) {
+                if (sql.charAt(i) != QUOTE) {
+                    continue;
+                }
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == QUOTE) {
+                    i++;
+                    continue;
+                }
+                return i + 1;
+            }
+            return -1;
+        }
+        int end = start;
+        while (end < sql.length() && !isDelimiter(sql.charAt(end))) {
+            end++;
+        }
+        return end == start ? -1 : end;
+    }
+
+    private static boolean isDelimiter(final char c) {
+        return Character.isWhitespace(c) || c == ',' || c == ')' || c == ';';
+    }
+
+    /**
+     * 포맷팅된 템플릿의 ? 자리에 파라미터를 순서대로 채운다.
+     *
+     * @return ? 개수와 파라미터 개수가 다르면 null
+     */
+    static String bind(final String template, final List<String> parameters) {
+        final StringBuilder sql = new StringBuilder(template.length() + parameters.size() * 8);
+        boolean quoted = false;
+        int index = 0;
+        for (int i = 0; i < template.length(); i++) {
+            final char c = template.charAt(i);
+            if (c == QUOTE) {
+                quoted = !quoted;
+            }
+            if (c == PLACEHOLDER && !quoted) {
+                if (index >= parameters.size()) {
+                    return null;
+                }
+                sql.append(upper(parameters.get(index++)));
+                continue;
+            }
+            sql.append(c);
+        }
+        return index == parameters.size() ? sql.toString() : null;
+    }
+}
@@ -1,15 +1,26 @@
 package learn.jpa.config;
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import learn.jpa.querydsl.QueryCacheProperties;
+import learn.jpa.querydsl.QueryResultCache;
+import learn.jpa.support.EntityChangeListener;
+import learn.jpa.support.FetchPlanRegistry;
+import learn.jpa.support.FetchPlans;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
 
 @Configuration
 @EnableJpaAuditing
+@EnableConfigurationProperties(QueryCacheProperties.class)
 public class JpaConfig {
     @PersistenceContext
     private EntityManager entityManager;
@@ -18,4 +29,21 @@ public class JpaConfig {
     public JPAQueryFactory jpaQueryFactory() {
         return new JPAQueryFactory(entityManager);
     }
+
+    // 엔티티에 선언되지 않은 플랜이 있으면 애플리케이션이 시작되지 않는다
+    @Bean
+    public FetchPlanRegistry fetchPlanRegistry(EntityManagerFactory entityManagerFactory) {
+        return new FetchPlanRegistry(entityManagerFactory, entityManager)
+                .declared(FetchPlans.MEMBER_WITH_TEAM, FetchPlans.CART_WITH_ITEMS);
+    }
+
+    @Bean
+    public QueryResultCache queryResultCache(QueryCacheProperties properties,
+                                             EntityManagerFactory entityManagerFactory,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        QueryResultCache cache = new QueryResultCache(properties);
+        EntityChangeListener.register(entityManagerFactory, cache::invalidate);
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache.getCache(), "querydsl.result"));
+        return cache;
+    }
 }
@@ -1,16 +1,70 @@
 package learn.jpa.config;
 
 import com.p6spy.engine.spy.P6SpyOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(SqlLoggingProperties.class)
 public class P6spyConfig {
+    private final SqlLoggingProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
 
     @PostConstruct
     public void setLogMessageFormat() {
+        CallSiteResolver.getInstance().configure(properties.getCallStack());
+        FormattedSqlCache.getInstance().configure(properties.getFormatCache());
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, FormattedSqlCache.getInstance().getCache(), "sql.format"));
         P6SpyOptions.getActiveInstance().setLogMessageFormat(P6spyPrettySqlFormatter.class.getName());
     }
 
+    @PostConstruct
+    public void setSampling() {
+        SqlLogSampler sampler = SqlLogSampler.getInstance();
+        sampler.configure(properties.getSampling());
+        if (!properties.getSampling().isEnabled()) {
+            return;
+        }
+        if (properties.getMode() == SqlLoggingProperties.Mode.SYNC) {
+            P6SpyOptions.getActiveInstance().setAppender(SampledSqlLogger.class.getName());
+        }
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder("sql.log.sampled.out", sampler, SqlLogSampler::getSampledOut).register(registry);
+            Gauge.builder("sql.log.sample.rate", sampler, SqlLogSampler::getRate).register(registry);
+        });
+    }
+
+    @PostConstruct
+    public void setAsyncAppender() {
+        if (properties.getMode() != SqlLoggingProperties.Mode.ASYNC) {
+            return;
+        }
+        SqlLogPipeline pipeline = SqlLogPipeline.getInstance();
+        pipeline.start(properties.getAsync());
+        P6SpyOptions.getActiveInstance().setAppender(AsyncSqlLogger.class.getName());
+        meterRegistry.ifAvailable(registry -> bindPipelineMetrics(registry, pipeline));
+    }
+
+    private void bindPipelineMetrics(MeterRegistry registry, SqlLogPipeline pipeline) {
+        FunctionCounter.builder("sql.log.enqueued", pipeline, SqlLogPipeline::getEnqueued).register(registry);
+        FunctionCounter.builder("sql.log.dropped", pipeline, SqlLogPipeline::getDropped).register(registry);
+        FunctionCounter.builder("sql.log.written", pipeline, SqlLogPipeline::getWritten).register(registry);
+        FunctionCounter.builder("sql.log.batches", pipeline, SqlLogPipeline::getBatches).register(registry);
+        Gauge.builder("sql.log.queue.size", pipeline, SqlLogPipeline::getQueueSize).register(registry);
+    }
+
+    @PreDestroy
+    public void stopAsyncAppender() {
+        SqlLogPipeline.getInstance().stop();
+    }
 }
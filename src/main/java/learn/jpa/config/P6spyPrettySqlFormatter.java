@@ -4,39 +4,37 @@ import com.p6spy.engine.logging.Category;
 import com.p6spy.engine.spy.appender.MessageFormattingStrategy;
 import org.hibernate.engine.jdbc.internal.FormatStyle;
 
-import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.Objects;
-import java.util.Stack;
-import java.util.function.Predicate;
-
-import static java.util.Arrays.stream;
 
 public class P6spyPrettySqlFormatter implements MessageFormattingStrategy {
     private static final String NEW_LINE = System.lineSeparator();
-    private static final String P6SPY_FORMATTER = "P6spyPrettySqlFormatter";
-    private static final String PACKAGE = "learn.jpa";
     private static final String CREATE = "create";
     private static final String ALTER = "alter";
     private static final String COMMENT = "comment";
 
     @Override
     public String formatMessage(final int connectionId, final String now, final long elapsed, final String category, final String prepared, final String sql, final String url) {
-        return sqlFormatToUpper(sql, category, getMessage(connectionId, elapsed, getStackBuilder()));
+        return sqlFormatToUpper(prepared, sql, category, getMessage(connectionId, elapsed, CallSiteResolver.getInstance().resolve()));
+    }
+
+    // 비동기 모드에서는 JDBC 스레드가 캡처한 호출 위치로 백그라운드 스레드가 포맷팅한다
+    String formatMessage(final SqlLogEvent event) {
+        return sqlFormatToUpper(event.getPrepared(), event.getSql(), event.getCategory(), getMessage(event.getConnectionId(), event.getElapsed(), CallSiteResolver.getInstance().format(event.getCallSite())));
     }
 
-    private String sqlFormatToUpper(final String sql, final String category, final String message) {
+    private String sqlFormatToUpper(final String prepared, final String sql, final String category, final String message) {
         if (Objects.isNull(sql.trim()) || sql.trim().isEmpty()) {
             return "";
         }
         return new StringBuilder()
                 .append(NEW_LINE)
-                .append(sqlFormatToUpper(sql, category))
+                .append(sqlFormatToUpper(prepared, sql, category))
                 .append(message)
                 .toString();
     }
 
-    private String sqlFormatToUpper(final String sql, final String category) {
+    private String sqlFormatToUpper(final String prepared, final String sql, final String category) {
         if (isStatementDDL(sql, category)) {
             return FormatStyle.DDL
                     .getFormatter()
@@ -44,11 +42,7 @@ public class P6spyPrettySqlFormatter implements MessageFormattingStrategy {
                     .toUpperCase(Locale.ROOT)
                     .replace("+0900", "");
         }
-        return FormatStyle.BASIC
-                .getFormatter()
-                .format(sql)
-                .toUpperCase(Locale.ROOT)
-                .replace("+0900", "");
+        return FormattedSqlCache.getInstance().format(prepared, sql);
     }
 
     private boolean isStatementDDL(final String sql, final String category) {
@@ -63,7 +57,7 @@ public class P6spyPrettySqlFormatter implements MessageFormattingStrategy {
         return lowerSql.startsWith(CREATE) || lowerSql.startsWith(ALTER) || lowerSql.startsWith(COMMENT);
     }
 
-    private String getMessage(final int connectionId, final long elapsed, final StringBuilder callStackBuilder) {
+    private String getMessage(final int connectionId, final long elapsed, final String callStack) {
         return new StringBuilder()
                 .append(NEW_LINE)
                 .append(NEW_LINE)
@@ -72,29 +66,10 @@ public class P6spyPrettySqlFormatter implements MessageFormattingStrategy {
                 .append("\t").append(String.format("Execution Time: %s ms", elapsed))
                 .append(NEW_LINE)
                 .append(NEW_LINE)
-                .append("\t").append(String.format("Call Stack (number 1 is entry point): %s", callStackBuilder))
+                .append("\t").append(String.format("Call Stack (number 1 is entry point): %s", callStack))
                 .append(NEW_LINE)
                 .append(NEW_LINE)
                 .append("----------------------------------------------------------------------------------------------------")
                 .toString();
     }
-
-    private StringBuilder getStackBuilder() {
-        final Stack<String> callStack = new Stack<>();
-        stream(new Throwable().getStackTrace())
-                .map(StackTraceElement::toString)
-                .filter(isExcludeWords())
-                .forEach(callStack::push);
-
-        int order = 1;
-        final StringBuilder callStackBuilder = new StringBuilder();
-        while (!callStack.empty()) {
-            callStackBuilder.append(MessageFormat.format("{0}\t\t{1}. {2}", NEW_LINE, order++, callStack.pop()));
-        }
-        return callStackBuilder;
-    }
-
-    private Predicate<String> isExcludeWords() {
-        return charSequence -> charSequence.startsWith(PACKAGE) && !charSequence.contains(P6SPY_FORMATTER);
-    }
 }
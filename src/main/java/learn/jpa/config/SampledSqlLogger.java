@@ -0,0 +1,19 @@
+package learn.jpa.config;
+
+import com.p6spy.engine.logging.Category;
+import com.p6spy.engine.spy.appender.Slf4JLogger;
+
+/**
+ * {@link SqlLogSampler}의 샘플링 정책을 적용하는 동기 모드용 P6spy Appender.
+ * <p>
+ * 샘플링에서 제외된 SQL 은 포맷팅 자체를 하지 않는다.
+ */
+public class SampledSqlLogger extends Slf4JLogger {
+    @Override
+    public void logSQL(final int connectionId, final String now, final long elapsed, final Category category, final String prepared, final String sql, final String url) {
+        if (!SqlLogSampler.getInstance().shouldLog(prepared, elapsed)) {
+            return;
+        }
+        super.logSQL(connectionId, now, elapsed, category, prepared, sql, url);
+    }
+}
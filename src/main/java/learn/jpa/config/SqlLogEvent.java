@@ -0,0 +1,18 @@
+package learn.jpa.config;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC 스레드에서 캡처하는 원본 SQL 로그 데이터. 포맷팅은 {@link SqlLogPipeline}의 백그라운드 스레드가 담당한다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SqlLogEvent {
+    private final int connectionId;
+    private final long elapsed;
+    private final String category;
+    private final String prepared;
+    private final String sql;
+    private final CallSite callSite;
+}
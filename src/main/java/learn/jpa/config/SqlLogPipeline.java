@@ -0,0 +1,139 @@
+package learn.jpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 제한된 크기의 큐에 {@link SqlLogEvent}를 쌓아두고, 단일 백그라운드 스레드가 배치 단위로 포맷팅하여 출력한다.
+ * <p>
+ * 큐가 가득 찼거나 파이프라인이 시작 전, 혹은 종료된 경우 JDBC 스레드를 블로킹하지 않고 로그를 버리며,
+ * 버려진 개수는 {@link #getDropped()}로 확인할 수 있다.
+ * <p>
+ * P6spy 가 Appender 를 리플렉션으로 생성하기 때문에 싱글톤으로 관리한다.
+ */
+@Slf4j(topic = "p6spy")
+public class SqlLogPipeline {
+    private static final SqlLogPipeline INSTANCE = new SqlLogPipeline();
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private final Function<SqlLogEvent, String> formatter;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile BlockingQueue<SqlLogEvent> queue = new ArrayBlockingQueue<>(new SqlLoggingProperties.Async().getQueueCapacity());
+    private volatile int batchSize = new SqlLoggingProperties.Async().getBatchSize();
+    private volatile Thread worker;
+
+    private SqlLogPipeline() {
+        this(new P6spyPrettySqlFormatter()::formatMessage);
+    }
+
+    SqlLogPipeline(final Function<SqlLogEvent, String> formatter) {
+        this.formatter = formatter;
+    }
+
+    public static SqlLogPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start(final SqlLoggingProperties.Async properties) {
+        if (worker != null) {
+            return;
+        }
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.worker = new Thread(this::drain, "sql-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public synchronized void stop() {
+        if (worker == null) {
+            return;
+        }
+        // 먼저 워커를 비워 이후 들어오는 로그는 버리고, 이미 쌓인 로그만 출력한다
+        final Thread stopping = worker;
+        worker = null;
+        stopping.interrupt();
+        try {
+            stopping.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 종료 중에 새 스레드가 뜨지 않도록 워커가 없으면 다시 시작하지 않고 버린다
+    public void offer(final SqlLogEvent event) {
+        if (worker != null && queue.offer(event)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        dropped.incrementAndGet();
+    }
+
+    private void drain() {
+        final List<SqlLogEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 시 남아있는 로그를 모두 출력한다
+        queue.drainTo(batch);
+        write(batch);
+    }
+
+    private void write(final List<SqlLogEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final StringBuilder messages = new StringBuilder();
+        for (SqlLogEvent event : batch) {
+            try {
+                messages.append(formatter.apply(event)).append(NEW_LINE);
+            }
+            catch (RuntimeException e) {
+                log.warn("failed to format sql log", e);
+            }
+        }
+        log.info(messages.toString());
+        written.addAndGet(batch.size());
+        batches.incrementAndGet();
+    }
+
+    public long getEnqueued() {
+        return enqueued.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,99 @@
+package learn.jpa.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL 로그 샘플링 정책.
+ * <p>
+ * 정규화된 SQL 형태마다 N 번 중 1 번만 로그를 남기고, 실행 시간이 임계치를 넘은 SQL 은 항상 남긴다.
+ * 적응형 모드에서는 1초마다 직전 1초 동안 로깅 대상이었던 SQL 수를 목표 초당 라인 수로 나누어 N 을 다시 계산한다.
+ * <p>
+ * P6spy 의 Appender 가 리플렉션으로 생성되기 때문에 싱글톤으로 관리한다.
+ */
+public class SqlLogSampler {
+    private static final SqlLogSampler INSTANCE = new SqlLogSampler();
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowCandidates = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private volatile SqlLoggingProperties.Sampling properties = new SqlLoggingProperties.Sampling();
+    // Prepared Statement 문자열 -> 형태별 카운터. 매번 정규화하지 않기 위해 캐싱한다
+    private volatile Cache<String, AtomicLong> counters = createCounters(properties);
+    private volatile Cache<String, AtomicLong> shapes = createCounters(properties);
+    private volatile long rate = properties.getRate();
+
+    private SqlLogSampler() {
+    }
+
+    public static SqlLogSampler getInstance() {
+        return INSTANCE;
+    }
+
+    public void configure(final SqlLoggingProperties.Sampling properties) {
+        this.properties = properties;
+        this.counters = createCounters(properties);
+        this.shapes = createCounters(properties);
+        this.rate = Math.max(1, properties.getRate());
+    }
+
+    private static Cache<String, AtomicLong> createCounters(final SqlLoggingProperties.Sampling properties) {
+        return Caffeine.newBuilder()
+                       .maximumSize(properties.getMaxShapes())
+                       .build();
+    }
+
+    /**
+     * @param elapsed 실행 시간(ms)
+     */
+    public boolean shouldLog(final String prepared, final long elapsed) {
+        final SqlLoggingProperties.Sampling properties = this.properties;
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        if (elapsed >= properties.getAlwaysLogThreshold().toMillis()) {
+            return true;
+        }
+        if (properties.isAdaptive()) {
+            windowCandidates.increment();
+            adapt(properties);
+        }
+        final long count = counters.get(prepared == null ? "" : prepared, this::counterOf).getAndIncrement();
+        if (count % rate == 0) {
+            return true;
+        }
+        sampledOut.increment();
+        return false;
+    }
+
+    // 같은 형태의 SQL 은 같은 카운터를 공유한다
+    private AtomicLong counterOf(final String prepared) {
+        return shapes.get(SqlNormalizer.normalize(prepared), shape -> new AtomicLong());
+    }
+
+    private void adapt(final SqlLoggingProperties.Sampling properties) {
+        final long now = System.nanoTime();
+        final long start = windowStart.get();
+        if (now - start < WINDOW_NANOS || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        final double seconds = (double) (now - start) / WINDOW_NANOS;
+        final double candidatesPerSecond = windowCandidates.sumThenReset() / seconds;
+        final long target = Math.max(1, properties.getTargetLinesPerSecond());
+        this.rate = Math.min(properties.getMaxRate(), Math.max(1, (long) Math.ceil(candidatesPerSecond / target)));
+    }
+
+    public long getRate() {
+        return rate;
+    }
+
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+}
@@ -0,0 +1,65 @@
+package learn.jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql-logging")
+public class SqlLoggingProperties {
+    private Mode mode = Mode.SYNC;
+    private Async async = new Async();
+    private CallStack callStack = new CallStack();
+    private FormatCache formatCache = new FormatCache();
+    private Sampling sampling = new Sampling();
+
+    public enum Mode {
+        // JDBC 스레드에서 바로 포맷팅 후 출력(기존 방식)
+        SYNC,
+        // 원본 SQL만 큐에 넣고 포맷팅, 출력은 백그라운드 스레드에서 처리
+        ASYNC
+    }
+
+    @Getter
+    @Setter
+    public static class Async {
+        // 큐가 가득 차면 이후 로그는 버려진다
+        private int queueCapacity = 10_000;
+        private int batchSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class CallStack {
+        // SQL 실행 지점에서 가까운 learn.jpa 프레임을 최대 몇 개까지 출력할지
+        private int depth = 20;
+        // 캐싱할 호출 위치의 최대 개수
+        private int cacheSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class FormatCache {
+        private boolean enabled = true;
+        // 캐싱된 Prepared Statement 와 포맷팅 결과의 문자 수 합계 상한
+        private long maxWeight = 4 * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Sampling {
+        private boolean enabled = false;
+        // 같은 형태의 SQL 을 N 번 중 1 번만 로깅(적응형 모드에서는 초기값)
+        private long rate = 1;
+        // 이 시간 이상 걸린 SQL 은 샘플링과 관계없이 로깅
+        private Duration alwaysLogThreshold = Duration.ofMillis(500);
+        // 초당 로그 라인 수가 목표치에 맞도록 N 을 자동으로 조정
+        private boolean adaptive = true;
+        private long targetLinesPerSecond = 100;
+        private long maxRate = 10_000;
+        private long maxShapes = 10_000;
+    }
+}
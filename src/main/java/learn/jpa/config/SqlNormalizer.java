@@ -0,0 +1,29 @@
+package learn.jpa.config;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 리터럴을 ? 로 치환하여 SQL 의 형태(shape)만 남긴다.
+ * <p>
+ * 같은 쿼리가 파라미터나 IN 절의 원소 개수만 다르게 실행되어도 같은 문자열로 정규화된다.
+ */
+public final class SqlNormalizer {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlNormalizer() {
+    }
+
+    public static String normalize(final String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,16 @@
+package learn.jpa.config.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+@Getter
+@RequiredArgsConstructor
+public class SlowQuery {
+    private final Instant executedAt;
+    private final long elapsedMs;
+    private final String statement;
+    private final String sql;
+    private final String callStack;
+}
@@ -0,0 +1,41 @@
+package learn.jpa.config.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 최근 슬로우 쿼리를 고정 크기 링 버퍼에 보관한다. 가득 차면 가장 오래된 항목을 덮어쓴다.
+ */
+public class SlowQueryLog {
+    private final AtomicReferenceArray<SlowQuery> buffer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowQueryLog(final int capacity) {
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(final SlowQuery slowQuery) {
+        buffer.set((int) (sequence.getAndIncrement() % buffer.length()), slowQuery);
+    }
+
+    // 최신순
+    public List<SlowQuery> getAll() {
+        final long last = sequence.get();
+        final List<SlowQuery> slowQueries = new ArrayList<>(buffer.length());
+        for (long i = last - 1; i >= Math.max(0, last - buffer.length()); i--) {
+            final SlowQuery slowQuery = buffer.get((int) (i % buffer.length()));
+            if (slowQuery != null) {
+                slowQueries.add(slowQuery);
+            }
+        }
+        return slowQueries;
+    }
+
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+}
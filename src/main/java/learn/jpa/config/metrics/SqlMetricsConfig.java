@@ -0,0 +1,27 @@
+package learn.jpa.config.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SqlMetricsProperties.class)
+@ConditionalOnProperty(prefix = "sql-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsConfig {
+    @Bean
+    public StatementMetrics statementMetrics(SqlMetricsProperties properties) {
+        return new StatementMetrics(properties);
+    }
+
+    // p6spy-spring-boot-starter 가 컨텍스트의 JdbcEventListener 빈을 등록한다
+    @Bean
+    public SqlMetricsListener sqlMetricsListener(StatementMetrics statementMetrics) {
+        return new SqlMetricsListener(statementMetrics);
+    }
+
+    @Bean
+    public SqlStatsEndpoint sqlStatsEndpoint(StatementMetrics statementMetrics) {
+        return new SqlStatsEndpoint(statementMetrics);
+    }
+}
@@ -0,0 +1,41 @@
+package learn.jpa.config.metrics;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.SQLException;
+
+/**
+ * P6spy 가 감싼 DataSource 에서 발생하는 JDBC 이벤트로 SQL 실행 통계를 수집한다.
+ */
+@RequiredArgsConstructor
+public class SqlMetricsListener extends SimpleJdbcEventListener {
+    private final StatementMetrics metrics;
+
+    @Override
+    public void onAfterAnyExecute(final StatementInformation statementInformation, final long timeElapsedNanos, final SQLException e) {
+        metrics.recordExecution(statementInformation.getStatementQuery(), statementInformation::getSqlWithValues, timeElapsedNanos, e != null);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(final PreparedStatementInformation statementInformation, final long timeElapsedNanos, final int rowCount, final SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+        metrics.recordRows(statementInformation.getStatementQuery(), rowCount);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(final StatementInformation statementInformation, final long timeElapsedNanos, final String sql, final int rowCount, final SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+        metrics.recordRows(statementInformation.getStatementQuery(), rowCount);
+    }
+
+    @Override
+    public void onAfterResultSetNext(final ResultSetInformation resultSetInformation, final long timeElapsedNanos, final boolean hasNext, final SQLException e) {
+        if (hasNext) {
+            metrics.recordRows(resultSetInformation.getStatementInformation().getStatementQuery(), 1);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package learn.jpa.config.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql-metrics")
+public class SqlMetricsProperties {
+    private boolean enabled = true;
+    // 이 시간 이상 걸린 SQL 은 슬로우 쿼리 링 버퍼에 호출 위치와 함께 기록된다
+    private Duration slowQueryThreshold = Duration.ofMillis(500);
+    private int slowQueryCapacity = 100;
+    // 통계를 수집할 정규화된 SQL 의 최대 개수. 초과분은 하나의 항목으로 합산된다
+    private int maxStatements = 1_000;
+}
@@ -0,0 +1,40 @@
+package learn.jpa.config.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * GET /actuator/sqlstats?limit=20 : 총 실행 시간이 긴 SQL 통계와 최근 슬로우 쿼리
+ * DELETE /actuator/sqlstats : 수집된 통계 초기화
+ */
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatsEndpoint {
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final StatementMetrics metrics;
+
+    @ReadOperation
+    public Map<String, Object> sqlStats(@Nullable Integer limit) {
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statements", metrics.getStatements()
+                                       .stream()
+                                       .limit(limit == null ? DEFAULT_LIMIT : limit)
+                                       .map(StatementStats::toMap)
+                                       .collect(Collectors.toList()));
+        stats.put("slowQueries", metrics.getSlowQueries());
+        return stats;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        metrics.reset();
+    }
+}
@@ -0,0 +1,84 @@
+package learn.jpa.config.metrics;
+
+import learn.jpa.config.CallSiteResolver;
+import learn.jpa.config.SqlNormalizer;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 정규화된 SQL 별 지연시간 히스토그램, 조회/변경 행 수와 슬로우 쿼리를 수집한다.
+ */
+public class StatementMetrics {
+    private static final String OTHERS = "(others)";
+
+    private final SqlMetricsProperties properties;
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    // 실행된 SQL 문자열 -> 통계. 행 단위 이벤트에서 매번 정규화하지 않기 위해 사용한다
+    private final Map<String, StatementStats> resolved = new ConcurrentHashMap<>();
+    private final SlowQueryLog slowQueries;
+
+    public StatementMetrics(final SqlMetricsProperties properties) {
+        this.properties = properties;
+        this.slowQueries = new SlowQueryLog(properties.getSlowQueryCapacity());
+    }
+
+    public void recordExecution(final String statement, final Supplier<String> sql, final long elapsedNanos, final boolean failed) {
+        final long micros = elapsedNanos / 1_000;
+        final StatementStats stats = statsOf(statement);
+        stats.recordExecution(micros, failed);
+        if (micros >= properties.getSlowQueryThreshold().toNanos() / 1_000) {
+            slowQueries.add(new SlowQuery(Instant.now(), micros / 1_000, stats.getSql(), sql.get(), CallSiteResolver.getInstance().resolve()));
+        }
+    }
+
+    public void recordRows(final String statement, final long rows) {
+        statsOf(statement).recordRows(rows);
+    }
+
+    private StatementStats statsOf(final String statement) {
+        final StatementStats stats = resolved.get(statement);
+        if (stats != null) {
+            return stats;
+        }
+        final StatementStats normalized = normalizedStatsOf(SqlNormalizer.normalize(statement));
+        if (resolved.size() < properties.getMaxStatements() * 4) {
+            resolved.put(statement, normalized);
+        }
+        return normalized;
+    }
+
+    private StatementStats normalizedStatsOf(final String normalized) {
+        final StatementStats stats = statements.get(normalized);
+        if (stats != null) {
+            return stats;
+        }
+        if (statements.size() >= properties.getMaxStatements()) {
+            return statements.computeIfAbsent(OTHERS, StatementStats::new);
+        }
+        return statements.computeIfAbsent(normalized, StatementStats::new);
+    }
+
+    // 총 실행 시간이 긴 순서
+    public List<StatementStats> getStatements() {
+        return statements.values()
+                         .stream()
+                         .sorted(Comparator.comparingLong(StatementStats::getTotalMicros).reversed())
+                         .collect(Collectors.toList());
+    }
+
+    public List<SlowQuery> getSlowQueries() {
+        return slowQueries.getAll();
+    }
+
+    public void reset() {
+        statements.clear();
+        resolved.clear();
+        slowQueries.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package learn.jpa.config.metrics;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 정규화된 SQL 하나에 대한 실행 통계.
+ */
+public class StatementStats {
+    @Getter
+    private final String sql;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public StatementStats(final String sql) {
+        this.sql = sql;
+    }
+
+    public void recordExecution(final long micros, final boolean failed) {
+        latency.record(micros);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public void recordRows(final long count) {
+        rows.add(count);
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    public long getTotalMicros() {
+        return latency.getTotal();
+    }
+
+    public Map<String, Object> toMap() {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sql", sql);
+        map.put("count", latency.getCount());
+        map.put("errors", errors.sum());
+        map.put("rows", rows.sum());
+        map.put("totalMs", latency.getTotal() / 1_000.0);
+        map.put("meanMs", latency.getMean() / 1_000.0);
+        map.put("p50Ms", latency.getValueAtPercentile(50) / 1_000.0);
+        map.put("p95Ms", latency.getValueAtPercentile(95) / 1_000.0);
+        map.put("p99Ms", latency.getValueAtPercentile(99) / 1_000.0);
+        map.put("maxMs", latency.getMax() / 1_000.0);
+        return map;
+    }
+}
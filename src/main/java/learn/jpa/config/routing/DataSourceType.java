@@ -0,0 +1,6 @@
+package learn.jpa.config.routing;
+
+public enum DataSourceType {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,83 @@
+package learn.jpa.config.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * primary, replica 커넥션 풀과 복제본 지연 상태를 가진다.
+ * <p>
+ * lag.query 가 있으면 checkInterval 마다 복제본에서 실행해 지연이 maxLag 를 넘거나 쿼리가 실패하면 복제본을 사용하지 않는다.
+ */
+@Slf4j
+public class ReplicationDataSources implements Closeable {
+    @Getter
+    private final HikariDataSource primary;
+    @Getter
+    private final HikariDataSource replica;
+    private final RoutingDataSourceProperties.Lag lag;
+    private final ScheduledExecutorService lagChecker;
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicationDataSources(HikariDataSource primary, HikariDataSource replica, RoutingDataSourceProperties.Lag lag) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lag = lag;
+        if (StringUtils.hasText(lag.getQuery())) {
+            checkLag();
+            this.lagChecker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-lag-"));
+            long interval = lag.getCheckInterval().toMillis();
+            this.lagChecker.scheduleWithFixedDelay(this::checkLag, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        else {
+            this.lagChecker = null;
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    void checkLag() {
+        boolean available;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lag.getQuery())) {
+            double seconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+            available = seconds * 1000 <= lag.getMaxLag().toMillis();
+            if (!available && replicaAvailable) {
+                log.warn("Replica lag {}s exceeds {}, routing reads to primary", seconds, lag.getMaxLag());
+            }
+        }
+        catch (SQLException e) {
+            available = false;
+            if (replicaAvailable) {
+                log.warn("Replica lag check failed, routing reads to primary", e);
+            }
+        }
+        if (available && !replicaAvailable) {
+            log.info("Replica caught up, routing reads to replica");
+        }
+        replicaAvailable = available;
+    }
+
+    @Override
+    public void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        replica.close();
+        primary.close();
+    }
+}
@@ -0,0 +1,32 @@
+package learn.jpa.config.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 복제본으로, 나머지는 primary 로 보낸다.
+ * <p>
+ * 트랜잭션 매니저는 readOnly 상태를 기록하기 전에 커넥션을 요청하므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 SQL 을 실행할 때 커넥션을 가져와야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReplicationDataSources dataSources;
+
+    public ReplicationRoutingDataSource(ReplicationDataSources dataSources) {
+        this.dataSources = dataSources;
+        setTargetDataSources(Map.of(DataSourceType.PRIMARY, dataSources.getPrimary(),
+                                    DataSourceType.REPLICA, dataSources.getReplica()));
+        setDefaultTargetDataSource(dataSources.getPrimary());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && dataSources.isReplicaAvailable()) {
+            return DataSourceType.REPLICA;
+        }
+        return DataSourceType.PRIMARY;
+    }
+}
@@ -0,0 +1,61 @@
+package learn.jpa.config.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * datasource-routing.enabled=true 면 spring.datasource 를 primary, datasource-routing.replica 를 복제본으로 사용한다.
+ * <p>
+ * 커넥션 풀은 빈으로 등록하지 않는다. DataSource 빈은 하나뿐이어야 p6spy 가 SQL 을 한 번만 기록한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+    @Bean
+    public ReplicationDataSources replicationDataSources(DataSourceProperties dataSourceProperties,
+                                                         RoutingDataSourceProperties routingProperties,
+                                                         Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        RoutingDataSourceProperties.Replica replicaProperties = routingProperties.getReplica();
+        HikariDataSource replica = DataSourceBuilder.create()
+                                                    .type(HikariDataSource.class)
+                                                    .url(replicaProperties.getUrl())
+                                                    .username(replicaProperties.getUsername())
+                                                    .password(replicaProperties.getPassword())
+                                                    .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        return new ReplicationDataSources(primary, replica, routingProperties.getLag());
+    }
+
+    // 첫 SQL 을 실행할 때까지 커넥션을 가져오지 않으므로 그 사이에 트랜잭션의 readOnly 여부가 정해진다
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicationDataSources replicationDataSources) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(new ReplicationRoutingDataSource(replicationDataSources));
+        // 기본값을 지정하지 않으면 초기화할 때 기본값을 확인하려고 커넥션을 가져온다
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+}
@@ -0,0 +1,37 @@
+package learn.jpa.config.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource-routing")
+public class RoutingDataSourceProperties {
+    // false 면 spring.datasource 하나만 사용
+    private boolean enabled = false;
+    private Replica replica = new Replica();
+    private Lag lag = new Lag();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Lag {
+        // 복제본에서 실행해 지연 시간(초)을 돌려주는 쿼리, 없으면 지연을 확인하지 않는다
+        // 예) PostgreSQL: select extract(epoch from now() - pg_last_xact_replay_timestamp())
+        private String query;
+        // 지연이 이보다 크거나 확인에 실패하면 읽기 전용 트랜잭션도 primary 로 보낸다
+        private Duration maxLag = Duration.ofSeconds(5);
+        private Duration checkInterval = Duration.ofSeconds(1);
+    }
+}
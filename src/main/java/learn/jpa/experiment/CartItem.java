@@ -1,9 +1,14 @@
 package learn.jpa.experiment;
 
+import learn.jpa.model.PooledSequenceGenerator;
+import learn.jpa.support.FetchPlans;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
@@ -11,16 +16,20 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@NamedEntityGraph(name = FetchPlans.CART_WITH_ITEMS, attributeNodes = @NamedAttributeNode("items"))
 @Getter
 @ToString
 @EntityListeners(AuditingEntityListener.class)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = PooledSequenceGenerator.NAME)
+    @GenericGenerator(name = PooledSequenceGenerator.NAME, strategy = PooledSequenceGenerator.STRATEGY)
     private Long id;
 
+    // 컬렉션 캐시는 Item 식별자만 보관하므로 Item 도 캐싱해야 원소를 다시 조회하지 않는다
     @OneToMany(cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Item> items = new HashSet<>();
 
     private CartItem(Long id, Set<Item> items) {
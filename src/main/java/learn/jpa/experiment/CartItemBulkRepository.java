@@ -0,0 +1,13 @@
+package learn.jpa.experiment;
+
+import java.util.Collection;
+
+/**
+ * 대량 적재용 쓰기 경로. 장바구니와 상품, 조인 테이블을 영속성 컨텍스트를 거치지 않고 JDBC 배치로 INSERT 한다.
+ * <p>
+ * 저장된 엔티티는 영속 상태가 아니며 식별자도 채워지지 않는다.
+ * 엔티티 이벤트가 발생하지 않으므로 조회 결과, 개수 캐시는 INSERT 후 직접 비운다.
+ */
+public interface CartItemBulkRepository {
+    int bulkInsert(Collection<CartItem> cartItems);
+}
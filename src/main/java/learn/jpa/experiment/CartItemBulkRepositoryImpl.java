@@ -0,0 +1,18 @@
+package learn.jpa.experiment;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+public class CartItemBulkRepositoryImpl implements CartItemBulkRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int bulkInsert(Collection<CartItem> cartItems) {
+        return new ExperimentBulkWriter(entityManager).insertCartItems(cartItems);
+    }
+}
@@ -1,11 +1,49 @@
 package learn.jpa.experiment;
 
+import learn.jpa.support.FetchPlans;
+import learn.jpa.support.KeysetCursor;
+import learn.jpa.support.TwoPhasePaging;
+import learn.jpa.support.Window;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>, CartItemBulkRepository {
     List<CartItemProjection> findByIdAfter(Long id);
 
     <T> List<T> findByIdAfter(Long id, Class<T> classType);
+
+    @Query("select c.id from CartItem c")
+    Page<Long> findIds(Pageable pageable);
+
+    @Query("select c.id from CartItem c where c.id > :id order by c.id")
+    List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(FetchPlans.CART_WITH_ITEMS)
+    List<CartItem> findAllByIdIn(Collection<Long> ids);
+
+    // 식별자만 페이징한 뒤 아이템과 함께 조회(컬렉션 페치 조인 + 페이징의 메모리 페이징 방지)
+    // 순서가 정해지지 않으면 페이지가 겹치거나 빠지므로 식별자를 마지막 정렬 키로 추가한다
+    default Page<CartItem> findAllWithItems(Pageable pageable) {
+        Pageable ordered = pageable;
+        if (pageable.isPaged() && pageable.getSort().getOrderFor("id") == null) {
+            ordered = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+        }
+        return TwoPhasePaging.page(findIds(ordered), this::findAllByIdIn, CartItem::getId);
+    }
+
+    // 키셋으로 식별자를 페이징한 뒤 아이템과 함께 조회
+    default Window<CartItem> findWindowWithItems(String cursor, int size) {
+        long afterId = cursor == null ? 0L : KeysetCursor.decode(cursor).getId();
+        Window<Long> ids = Window.of(findIdsAfter(afterId, PageRequest.of(0, size + 1)), size, KeysetCursor::of);
+        return TwoPhasePaging.window(ids, this::findAllByIdIn, CartItem::getId);
+    }
 }
@@ -0,0 +1,136 @@
+package learn.jpa.experiment;
+
+import learn.jpa.support.EntityChangeListener;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Item, CartItem 을 영속성 컨텍스트를 거치지 않고 JDBC 배치 + 다중 행 INSERT 로 저장한다.
+ * <p>
+ * 식별자는 엔티티에 매핑된 Hibernate 식별자 생성기(pooled-lo 시퀀스)로 할당하며 식별자가 이미 있는 엔티티는 받지 않는다.
+ * 테이블과 컬럼명은 Hibernate 메타모델에서 가져온다. 엔티티는 영속 상태가 되지 않으므로 1차 캐시, 변경 감지, 감사(Auditing)가 적용되지 않는다.
+ * <p>
+ * 엔티티 이벤트가 발생하지 않으므로 INSERT 후 {@link EntityChangeListener#changed}로 조회 결과, 개수 캐시를 비운다.
+ */
+class ExperimentBulkWriter {
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    private final SessionImplementor session;
+    private final AbstractEntityPersister itemPersister;
+    private final AbstractEntityPersister cartItemPersister;
+    private final AbstractCollectionPersister cartItemsPersister;
+
+    ExperimentBulkWriter(EntityManager entityManager) {
+        this.session = entityManager.unwrap(SessionImplementor.class);
+        this.itemPersister = (AbstractEntityPersister) session.getFactory().getMetamodel().entityPersister(Item.class);
+        this.cartItemPersister = (AbstractEntityPersister) session.getFactory().getMetamodel().entityPersister(CartItem.class);
+        this.cartItemsPersister = (AbstractCollectionPersister) session.getFactory().getMetamodel().collectionPersister(CartItem.class.getName() + ".items");
+    }
+
+    int insertItems(Collection<Item> items) {
+        List<Object[]> itemRows = items.stream()
+                                       .map(this::itemRow)
+                                       .collect(Collectors.toList());
+        insert(itemPersister.getTableName(), itemColumns(), itemRows);
+        EntityChangeListener.changed(session.getFactory(), Item.class);
+        return itemRows.size();
+    }
+
+    int insertCartItems(Collection<CartItem> cartItems) {
+        List<Object[]> cartItemRows = new ArrayList<>(cartItems.size());
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> joinRows = new ArrayList<>();
+        for (CartItem cartItem : cartItems) {
+            Object cartItemId = idOf(cartItemPersister, cartItem, cartItem.getId());
+            cartItemRows.add(new Object[]{cartItemId});
+            for (Item item : cartItem.getItems()) {
+                Object[] itemRow = itemRow(item);
+                itemRows.add(itemRow);
+                joinRows.add(new Object[]{cartItemId, itemRow[0]});
+            }
+        }
+        insert(cartItemPersister.getTableName(), cartItemPersister.getIdentifierColumnNames(), cartItemRows);
+        insert(itemPersister.getTableName(), itemColumns(), itemRows);
+        insert(cartItemsPersister.getTableName(), new String[]{cartItemsPersister.getKeyColumnNames()[0], cartItemsPersister.getElementColumnNames()[0]}, joinRows);
+        EntityChangeListener.changed(session.getFactory(), CartItem.class);
+        EntityChangeListener.changed(session.getFactory(), Item.class);
+        return cartItemRows.size();
+    }
+
+    private String[] itemColumns() {
+        return new String[]{
+                itemPersister.getIdentifierColumnNames()[0],
+                itemPersister.getPropertyColumnNames("name")[0],
+                itemPersister.getPropertyColumnNames("description")[0],
+                itemPersister.getPropertyColumnNames("createdAt")[0]
+        };
+    }
+
+    private Object[] itemRow(Item item) {
+        LocalDateTime createdAt = item.getCreatedAt() == null ? LocalDateTime.now() : item.getCreatedAt();
+        return new Object[]{idOf(itemPersister, item, item.getId()), item.getName(), item.getDescription(), Timestamp.valueOf(createdAt)};
+    }
+
+    // persist 와 같이 식별자는 항상 생성기로 할당한다. 임의로 지정한 식별자는 이후 시퀀스가 할당하는 값과 충돌할 수 있다
+    private Object idOf(AbstractEntityPersister persister, Object entity, Long id) {
+        if (id != null) {
+            throw new IllegalArgumentException(String.format("%s already has an identifier: %d", persister.getEntityName(), id));
+        }
+        return persister.getIdentifierGenerator().generate(session, entity);
+    }
+
+    /**
+     * ROWS_PER_STATEMENT 개의 행을 하나의 INSERT 문으로 묶고, 그 INSERT 문을 JDBC 배치로 실행한다.
+     */
+    private void insert(String table, String[] columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int fullStatements = rows.size() / ROWS_PER_STATEMENT;
+        session.doWork(connection -> {
+            if (fullStatements > 0) {
+                try (PreparedStatement statement = connection.prepareStatement(insertSql(table, columns, ROWS_PER_STATEMENT))) {
+                    for (int i = 0; i < fullStatements; i++) {
+                        bind(statement, rows.subList(i * ROWS_PER_STATEMENT, (i + 1) * ROWS_PER_STATEMENT));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            List<Object[]> remainder = rows.subList(fullStatements * ROWS_PER_STATEMENT, rows.size());
+            if (!remainder.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(insertSql(table, columns, remainder.size()))) {
+                    bind(statement, remainder);
+                    statement.executeUpdate();
+                }
+            }
+        });
+    }
+
+    private void bind(PreparedStatement statement, List<Object[]> rows) throws SQLException {
+        int index = 1;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                statement.setObject(index++, value);
+            }
+        }
+    }
+
+    private String insertSql(String table, String[] columns, int rowCount) {
+        String values = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        return "insert into " + table + " (" + String.join(", ", columns) + ") values "
+                + String.join(", ", Collections.nCopies(rowCount, values));
+    }
+}
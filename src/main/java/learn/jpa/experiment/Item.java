@@ -1,6 +1,10 @@
 package learn.jpa.experiment;
 
+import learn.jpa.model.PooledSequenceGenerator;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -8,13 +12,18 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+// findWindowByNameContainingOrderByCreatedAtDesc 키셋 페이징(createdAt desc, id desc)이 정렬 없이 인덱스를 따라 마지막 위치부터 읽는다
+@Table(indexes = @Index(name = "idx_item_created_at_id", columnList = "created_at, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @ToString
 @EntityListeners(AuditingEntityListener.class)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = PooledSequenceGenerator.NAME)
+    @GenericGenerator(name = PooledSequenceGenerator.NAME, strategy = PooledSequenceGenerator.STRATEGY)
     private Long id;
 
     private String name;
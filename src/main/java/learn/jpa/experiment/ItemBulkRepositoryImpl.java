@@ -0,0 +1,18 @@
+package learn.jpa.experiment;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+public class ItemBulkRepositoryImpl implements ItemBulkRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int bulkInsert(Collection<Item> items) {
+        return new ExperimentBulkWriter(entityManager).insertItems(items);
+    }
+}
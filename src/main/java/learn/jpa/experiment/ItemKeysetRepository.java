@@ -0,0 +1,8 @@
+package learn.jpa.experiment;
+
+import learn.jpa.support.Window;
+
+public interface ItemKeysetRepository {
+    // 최신순(createdAt desc, id desc) 키셋 페이징
+    Window<Item> findWindowByNameContainingOrderByCreatedAtDesc(String name, String cursor, int size);
+}
@@ -0,0 +1,26 @@
+package learn.jpa.experiment;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import learn.jpa.support.Keysets;
+import learn.jpa.support.Window;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static learn.jpa.experiment.QItem.item;
+
+// Querydsl 조회 전용: 라우팅 DataSource 를 사용하면 복제본에서 실행
+@Transactional(readOnly = true)
+public class ItemKeysetRepositoryImpl implements ItemKeysetRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<Item> findWindowByNameContainingOrderByCreatedAtDesc(String name, String cursor, int size) {
+        return Keysets.fetch(new JPAQueryFactory(entityManager).selectFrom(item).where(item.name.contains(name)),
+                             item.createdAt, item.id, Order.DESC, cursor, size,
+                             Item::getCreatedAt, Item::getId);
+    }
+}
@@ -1,24 +1,44 @@
 package learn.jpa.experiment;
 
+import learn.jpa.support.KeysetCursor;
+import learn.jpa.support.count.CountMode;
+import learn.jpa.support.count.CountStrategy;
+import learn.jpa.support.Window;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long>, QueryByExampleExecutor<Item> {
+public interface ItemRepository extends JpaRepository<Item, Long>, QueryByExampleExecutor<Item>, ItemBulkRepository, ItemKeysetRepository {
     // 슬라이스는 페이저블로 제공한 limit보다 1만큼의 레코드를 더 조회한 후 레코드가 있으면 다음 페이지가 있다고 판단한다
     Slice<Item> readAllByNameContaining(String name, Pageable pageable);
 
     // 페이저블로 제공한 limit 카운트보다 실제 반환되는 레코드가 적으면 카운트쿼리가 발생하지 않음
     // 페이지가 슬라이스를 상속받으며, getTotalPages, getTotalElements를 추가로 선언함
+    // 10,000건을 넘으면 세지 않고 "10,000+"로 표시, 넘지 않으면 count 쿼리만 추가로 실행
+    @CountStrategy(value = CountMode.CAPPED, slice = "readAllByNameContaining", count = "countByNameContaining")
     Page<Item> findAllByNameContaining(String name, Pageable pageable);
 
+    long countByNameContaining(String name);
+
     // DTO 프로젝션
     // 원하는 필드가 생성자에 추가돼있어야만 한다
     List<ItemDto> findByNameContaining(String name);
 
     List<Item> findByIdAndNameContainingAndDescriptionContaining(Long id, String name, String description);
+
+    List<Item> findByNameContainingAndIdGreaterThan(String name, Long id, Pageable pageable);
+
+    // 키셋 페이징: OFFSET 없이 id 오름차순으로 커서 이후의 레코드를 size 만큼 조회(id 순서 전용, 기본 키 인덱스를 사용)
+    // 최신순(createdAt, id) 키셋은 idx_item_created_at_id 를 사용하는 findWindowByNameContainingOrderByCreatedAtDesc
+    default Window<Item> findWindowByNameContaining(String name, String cursor, int size) {
+        long afterId = cursor == null ? 0L : KeysetCursor.decode(cursor).getId();
+        List<Item> rows = findByNameContainingAndIdGreaterThan(name, afterId, PageRequest.of(0, size + 1, Sort.by("id")));
+        return Window.of(rows, size, item -> KeysetCursor.of(item.getId()));
+    }
 }
@@ -1,19 +1,33 @@
 package learn.jpa.model;
 
+import learn.jpa.support.FetchPlans;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.validation.constraints.NotNull;
 
 @Entity
+@NamedEntityGraph(name = FetchPlans.MEMBER_WITH_TEAM, attributeNodes = @NamedAttributeNode("team"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Getter
 @ToString(callSuper = true)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Member extends BaseEntity {
+public class Member extends VersionedEntity {
+    // 이름 -> 식별자 매핑을 2차 캐시에 보관한다(이름은 유일해야 함)
     @NotNull
+    @NaturalId(mutable = true)
     private String name;
 
     @NotNull
@@ -32,6 +46,20 @@ public class Member extends BaseEntity {
         return new Member(name, age);
     }
 
+    public void changeName(String name) {
+        if(name == null) {
+            throw new IllegalArgumentException("Name is null!");
+        }
+        this.name = name;
+    }
+
+    public void changeAge(int age) {
+        if(age < 0) {
+            throw new IllegalArgumentException("Age is negative!");
+        }
+        this.age = age;
+    }
+
     public void changeTeam(Team team) {
         if(team == null) {
             throw new IllegalArgumentException("Team is null!");
@@ -5,10 +5,14 @@ import lombok.*;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
 @Entity
+// findWindowByNameStartingWithOrderByName(name, id), findWindowByName(name = ?, id) 키셋 페이징이 정렬 없이 인덱스 범위를 읽는다
+@Table(indexes = @Index(name = "idx_simple_name_id", columnList = "name, id"))
 @Getter
 @ToString(callSuper = true)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -0,0 +1,21 @@
+package learn.jpa.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+/**
+ * 낙관적 락이 필요한 엔티티만 상속한다.
+ * <p>
+ * 수정 시 버전을 조건으로 UPDATE 하고, 다른 트랜잭션이 먼저 수정했으면 OptimisticLockException 이 발생한다.
+ * 버전 없이 병합하거나 수정하는 기존 흐름에 영향을 주지 않도록 나머지 엔티티는 {@link BaseEntity}를 그대로 상속한다.
+ */
+@Getter
+@ToString(callSuper = true)
+@MappedSuperclass
+public abstract class VersionedEntity extends BaseEntity {
+    @Version
+    private Long version;
+}
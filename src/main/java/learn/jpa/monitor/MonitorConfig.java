@@ -0,0 +1,39 @@
+package learn.jpa.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PostConstruct;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties({NPlusOneProperties.class, QueryBudgetProperties.class})
+public class MonitorConfig implements WebMvcConfigurer {
+    private final NPlusOneProperties nPlusOneProperties;
+    private final QueryBudgetProperties queryBudgetProperties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @PostConstruct
+    public void setNPlusOneDetector() {
+        NPlusOneDetector.setMode(nPlusOneProperties.getMode());
+        NPlusOneDetector.setThreshold(nPlusOneProperties.getThreshold());
+    }
+
+    // p6spy-spring-boot-starter 가 컨텍스트의 JdbcEventListener 빈을 등록한다
+    @Bean
+    public QueryBudgetListener queryBudgetListener() {
+        return new QueryBudgetListener();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new NPlusOneInterceptor());
+        registry.addInterceptor(new QueryBudgetInterceptor(queryBudgetProperties, meterRegistry));
+    }
+}
@@ -0,0 +1,114 @@
+package learn.jpa.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate 가 실행하는 SQL 을 트랜잭션(또는 요청) 단위로 모아 N+1 쿼리를 탐지한다.
+ * <p>
+ * 같은 Prepared Statement 가 바인딩 값만 다르게 임계치 이상 반복 실행되면 N+1 로 판단하고,
+ * 호출 위치와 함께 페치 전략을 제안한다. STRICT 모드에서는 {@link NPlusOneQueryException}을 던진다.
+ * <p>
+ * Hibernate 가 리플렉션으로 생성하므로 설정은 정적으로 관리한다.
+ *
+ * @see "hibernate.session_factory.statement_inspector"
+ */
+@Slf4j
+public class NPlusOneDetector implements StatementInspector {
+    private static final ThreadLocal<StatementScope> SCOPE = new ThreadLocal<>();
+
+    private static volatile Mode mode = Mode.LOG;
+    private static volatile int threshold = 3;
+
+    public enum Mode {
+        OFF,
+        // 탐지 결과를 경고 로그로 남긴다
+        LOG,
+        // 임계치를 넘는 순간 예외를 던진다(테스트용)
+        STRICT
+    }
+
+    @Override
+    public String inspect(final String sql) {
+        if (mode == Mode.OFF) {
+            return sql;
+        }
+        final StatementScope scope = currentScope();
+        if (scope == null) {
+            return sql;
+        }
+        final NPlusOneSuspect suspect = scope.record(sql, threshold);
+        if (suspect != null && mode == Mode.STRICT) {
+            throw new NPlusOneQueryException(suspect);
+        }
+        return sql;
+    }
+
+    private StatementScope currentScope() {
+        final StatementScope scope = SCOPE.get();
+        if (scope != null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return scope;
+        }
+        // 요청 단위 스코프가 없으면 트랜잭션 단위로 모은다
+        final StatementScope transactionScope = new StatementScope();
+        SCOPE.set(transactionScope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                close(transactionScope);
+            }
+        });
+        return transactionScope;
+    }
+
+    /**
+     * 요청과 같이 여러 트랜잭션을 묶어서 탐지할 때 사용한다. 이미 열린 스코프가 있으면 그 스코프에 포함된다.
+     */
+    public static Scope open() {
+        if (SCOPE.get() != null) {
+            return () -> {
+            };
+        }
+        final StatementScope scope = new StatementScope();
+        SCOPE.set(scope);
+        return () -> close(scope);
+    }
+
+    // 현재 스레드에 열린 스코프가 있는지(스레드 재사용 시 누수 확인용)
+    static boolean isScopeOpen() {
+        return SCOPE.get() != null;
+    }
+
+    private static void close(final StatementScope scope) {
+        if (SCOPE.get() == scope) {
+            SCOPE.remove();
+        }
+        for (NPlusOneSuspect suspect : scope.getSuspects()) {
+            log.warn("{}", suspect);
+        }
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(final Mode mode) {
+        NPlusOneDetector.mode = mode;
+    }
+
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    public static void setThreshold(final int threshold) {
+        NPlusOneDetector.threshold = threshold;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,40 @@
+package learn.jpa.monitor;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청 하나에서 실행된 SQL 을 하나의 스코프로 묶는다. open-in-view 가 꺼져 있으면 요청 하나에 여러 트랜잭션이 생길 수 있기 때문이다.
+ * <p>
+ * 비동기 요청은 처음 디스패치한 스레드에서 afterCompletion 이 호출되지 않으므로 afterConcurrentHandlingStarted 에서 스코프를 닫는다.
+ * 비동기 처리가 끝난 뒤의 디스패치는 다시 preHandle 부터 시작한다.
+ */
+public class NPlusOneInterceptor implements AsyncHandlerInterceptor {
+    private static final String SCOPE = NPlusOneInterceptor.class.getName() + ".SCOPE";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(SCOPE, NPlusOneDetector.open());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        close(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        close(request);
+    }
+
+    private static void close(HttpServletRequest request) {
+        Object scope = request.getAttribute(SCOPE);
+        if (scope instanceof NPlusOneDetector.Scope) {
+            ((NPlusOneDetector.Scope) scope).close();
+        }
+        request.removeAttribute(SCOPE);
+    }
+}
@@ -0,0 +1,14 @@
+package learn.jpa.monitor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "n-plus-one")
+public class NPlusOneProperties {
+    private NPlusOneDetector.Mode mode = NPlusOneDetector.Mode.LOG;
+    // 같은 Prepared Statement 가 한 트랜잭션(요청)에서 이 횟수 이상 실행되면 N+1 로 판단한다
+    private int threshold = 3;
+}
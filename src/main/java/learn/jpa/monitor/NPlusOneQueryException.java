@@ -0,0 +1,13 @@
+package learn.jpa.monitor;
+
+import lombok.Getter;
+
+@Getter
+public class NPlusOneQueryException extends RuntimeException {
+    private final NPlusOneSuspect suspect;
+
+    public NPlusOneQueryException(NPlusOneSuspect suspect) {
+        super(suspect.toString());
+        this.suspect = suspect;
+    }
+}
@@ -0,0 +1,45 @@
+package learn.jpa.monitor;
+
+import lombok.Getter;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Getter
+public class NPlusOneSuspect {
+    private static final Pattern FROM_TABLE = Pattern.compile("\\bfrom\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private final String sql;
+    private final String callStack;
+    private int count;
+
+    NPlusOneSuspect(final String sql, final int count, final String callStack) {
+        this.sql = sql;
+        this.count = count;
+        this.callStack = callStack;
+    }
+
+    void increase() {
+        count++;
+    }
+
+    public String getTable() {
+        final Matcher matcher = FROM_TABLE.matcher(sql);
+        return matcher.find() ? matcher.group(1) : "?";
+    }
+
+    public String getSuggestion() {
+        return String.format("'%s' 를 조회하는 연관관계에 fetch join, @EntityGraph 를 사용하거나 @BatchSize(hibernate.default_batch_fetch_size)로 IN 절 배치 조회를 고려하세요.", getTable());
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder()
+                .append("N+1 query suspected: executed ").append(count).append(" times")
+                .append(NEW_LINE).append("\t").append(sql)
+                .append(NEW_LINE).append("\tCall Stack (number 1 is entry point): ").append(callStack)
+                .append(NEW_LINE).append("\tSuggestion: ").append(getSuggestion())
+                .toString();
+    }
+}
@@ -0,0 +1,23 @@
+package learn.jpa.monitor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메서드 하나가 요청 처리 중 실행할 수 있는 SQL 개수와 DB 시간의 상한.
+ * <p>
+ * 요청 스레드에서 실행된 SQL 을 P6spy 가 감싼 DataSource 에서 세며, 위반 시 동작은 query-budget.action 으로 정한다.
+ *
+ * @see QueryBudgetProperties.Action
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int maxStatements() default Integer.MAX_VALUE;
+
+    long maxDbTimeMillis() default Long.MAX_VALUE;
+}
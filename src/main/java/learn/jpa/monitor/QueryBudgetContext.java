@@ -0,0 +1,69 @@
+package learn.jpa.monitor;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 스레드에 바인딩되어 실행된 SQL 개수와 DB 시간을 누적한다.
+ */
+@Getter
+public class QueryBudgetContext {
+    private static final ThreadLocal<QueryBudgetContext> CONTEXT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final QueryBudget budget;
+    private final boolean failFast;
+    private int statements;
+    private long dbTimeNanos;
+
+    private QueryBudgetContext(String endpoint, QueryBudget budget, boolean failFast) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.failFast = failFast;
+    }
+
+    public static void start(String endpoint, QueryBudget budget, boolean failFast) {
+        CONTEXT.set(new QueryBudgetContext(endpoint, budget, failFast));
+    }
+
+    public static QueryBudgetContext current() {
+        return CONTEXT.get();
+    }
+
+    public static QueryBudgetContext end() {
+        QueryBudgetContext context = CONTEXT.get();
+        CONTEXT.remove();
+        return context;
+    }
+
+    // 예산을 넘게 되는 SQL 은 실행하기 전에 막는다
+    void beforeStatement() {
+        if (!failFast) {
+            return;
+        }
+        if (statements + 1 > budget.maxStatements()) {
+            throw new QueryBudgetExceededException(String.format("%s: statement budget %d exceeded", endpoint, budget.maxStatements()));
+        }
+        if (isDbTimeExceeded()) {
+            throw new QueryBudgetExceededException(String.format("%s: db time budget %d ms exceeded (%d ms)", endpoint, budget.maxDbTimeMillis(), getDbTimeMillis()));
+        }
+    }
+
+    void afterStatement(long elapsedNanos) {
+        statements++;
+        dbTimeNanos += elapsedNanos;
+    }
+
+    public boolean isStatementsExceeded() {
+        return statements > budget.maxStatements();
+    }
+
+    public boolean isDbTimeExceeded() {
+        return getDbTimeMillis() > budget.maxDbTimeMillis();
+    }
+
+    public long getDbTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dbTimeNanos);
+    }
+}
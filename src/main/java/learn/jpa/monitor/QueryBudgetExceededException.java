@@ -0,0 +1,7 @@
+package learn.jpa.monitor;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package learn.jpa.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * {@link QueryBudget}이 선언된 핸들러의 요청 처리 구간(인자 바인딩 포함)에 예산을 적용한다.
+ * <p>
+ * 비동기 핸들러는 요청 스레드를 반납하므로 afterConcurrentHandlingStarted 에서 컨텍스트를 정리한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+    private final QueryBudgetProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget != null) {
+            String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+            QueryBudgetContext.start(endpoint, budget, properties.getAction() == QueryBudgetProperties.Action.THROW);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryBudgetContext.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryBudgetContext context = QueryBudgetContext.end();
+        if (context == null) {
+            return;
+        }
+        if (context.isStatementsExceeded()) {
+            report(context, "statements");
+        }
+        if (context.isDbTimeExceeded()) {
+            report(context, "db-time");
+        }
+    }
+
+    private void report(QueryBudgetContext context, String type) {
+        meterRegistry.ifAvailable(registry -> registry.counter("query.budget.violations", "endpoint", context.getEndpoint(), "type", type).increment());
+        if (properties.getAction() == QueryBudgetProperties.Action.METRIC) {
+            return;
+        }
+        log.warn("Query budget exceeded: {} executed {} statements in {} ms (budget: {} statements, {} ms)",
+                 context.getEndpoint(), context.getStatements(), context.getDbTimeMillis(),
+                 context.getBudget().maxStatements(), context.getBudget().maxDbTimeMillis());
+    }
+}
@@ -0,0 +1,27 @@
+package learn.jpa.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+
+import java.sql.SQLException;
+
+/**
+ * 현재 스레드에 {@link QueryBudgetContext}가 있으면 실행된 SQL 개수와 시간을 누적한다.
+ */
+public class QueryBudgetListener extends SimpleJdbcEventListener {
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        QueryBudgetContext context = QueryBudgetContext.current();
+        if (context != null) {
+            context.beforeStatement();
+        }
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        QueryBudgetContext context = QueryBudgetContext.current();
+        if (context != null) {
+            context.afterStatement(timeElapsedNanos);
+        }
+    }
+}
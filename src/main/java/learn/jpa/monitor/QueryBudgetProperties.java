@@ -0,0 +1,21 @@
+package learn.jpa.monitor;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetProperties {
+    private Action action = Action.LOG;
+
+    public enum Action {
+        // 경고 로그와 메트릭(query.budget.violations)
+        LOG,
+        // 메트릭만 기록
+        METRIC,
+        // 예산을 넘는 SQL 이 실행되기 전에 QueryBudgetExceededException 을 던진다(개발, 테스트 환경용)
+        THROW
+    }
+}
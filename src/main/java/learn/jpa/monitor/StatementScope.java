@@ -0,0 +1,52 @@
+package learn.jpa.monitor;
+
+import learn.jpa.config.CallSiteResolver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 하나의 스레드에서 실행된 SELECT 문을 Prepared Statement 단위로 센다.
+ */
+class StatementScope {
+    private final Map<String, NPlusOneSuspect> suspects = new HashMap<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    /**
+     * @return 이번 실행으로 임계치에 도달했다면 새로 탐지된 N+1 의심 쿼리
+     */
+    NPlusOneSuspect record(final String sql, final int threshold) {
+        if (!isSingleParameterSelect(sql)) {
+            return null;
+        }
+        final int count = counts.merge(sql, 1, Integer::sum);
+        final NPlusOneSuspect suspect = suspects.get(sql);
+        if (suspect != null) {
+            suspect.increase();
+            return null;
+        }
+        if (count < threshold) {
+            return null;
+        }
+        final NPlusOneSuspect newSuspect = new NPlusOneSuspect(sql, count, CallSiteResolver.getInstance().resolve());
+        suspects.put(sql, newSuspect);
+        return newSuspect;
+    }
+
+    List<NPlusOneSuspect> getSuspects() {
+        return new ArrayList<>(suspects.values());
+    }
+
+    // 프록시 초기화, 컬렉션 로딩처럼 식별자 하나로 조회하는 SELECT 만 대상으로 한다
+    private boolean isSingleParameterSelect(final String sql) {
+        final String lowerSql = sql.trim().toLowerCase(Locale.ROOT);
+        if (!lowerSql.startsWith("select")) {
+            return false;
+        }
+        final int where = lowerSql.lastIndexOf(" where ");
+        return where > 0 && lowerSql.indexOf('?', where) >= 0 && lowerSql.indexOf('?', where) == lowerSql.lastIndexOf('?');
+    }
+}
@@ -0,0 +1,144 @@
+package learn.jpa.querydsl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.jpa.impl.JPAQuery;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Entity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Querydsl 조회 결과 캐시.
+ * <p>
+ * 직렬화한 JPQL 과 쿼리 메타데이터(조건의 상수 포함)가 같으면 같은 쿼리로 본다.
+ * 쿼리가 조인한 엔티티가 변경되면 해당 결과를 비운다.
+ * <p>
+ * 영속성 컨텍스트를 벗어난 엔티티를 여러 트랜잭션이 공유하지 않도록 엔티티 조회 결과는 캐싱하지 않는다.
+ * 집계나 DTO 프로젝션처럼 조회가 잦은 쿼리에 사용하며, 반환된 객체는 공유되므로 수정하면 안 된다.
+ * 서브쿼리에서만 참조한 엔티티와 벌크 연산은 무효화 대상에서 빠진다.
+ * <p>
+ * 읽기 쓰기 트랜잭션 안에서는 캐시를 사용하지 않는다. flush 한 미커밋 데이터가 다른 트랜잭션에 공유되거나(커밋 전, 롤백 후에도),
+ * 자신이 쓴 데이터가 캐시된 이전 결과에 가려지기 때문이다. 트랜잭션 밖이나 읽기 전용 트랜잭션에서만 캐시를 사용한다.
+ *
+ * <pre>
+ * List&lt;Tuple&gt; result = queryResultCache.fetch(queryFactory.select(team.name, member.age.avg())
+ *                                                          .from(member)
+ *                                                          .join(member.team, team)
+ *                                                          .groupBy(team.name));
+ * </pre>
+ */
+public class QueryResultCache {
+    private final Cache<Key, Entry> cache;
+    private final boolean enabled;
+    // 조회 도중 무효화가 일어나면 이전 데이터로 조회했을 수 있으므로 캐싱하지 않는다
+    private final AtomicLong generation = new AtomicLong();
+
+    public QueryResultCache(QueryCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(properties.getMaximumSize())
+                             .expireAfterWrite(properties.getTtl())
+                             .recordStats()
+                             .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> fetch(JPAQuery<T> query) {
+        return (List<T>) get(Kind.LIST, query, () -> Collections.unmodifiableList(new ArrayList<>(query.fetch())));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T fetchOne(JPAQuery<T> query) {
+        return (T) get(Kind.ONE, query, query::fetchOne);
+    }
+
+    public long fetchCount(JPAQuery<?> query) {
+        return (Long) get(Kind.COUNT, query, query::fetchCount);
+    }
+
+    public void invalidate(Class<?> entityType) {
+        generation.incrementAndGet();
+        cache.asMap()
+             .values()
+             .removeIf(entry -> entry.entityTypes.stream().anyMatch(type -> type.isAssignableFrom(entityType)));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    private Object get(Kind kind, JPAQuery<?> query, Supplier<Object> loader) {
+        QueryMetadata metadata = query.getMetadata();
+        if (!enabled || !isCacheableTransaction()) {
+            return loader.get();
+        }
+        if (kind != Kind.COUNT && isEntity(metadata.getProjection() == null ? null : metadata.getProjection().getType())) {
+            throw new IllegalArgumentException("Entity results are not cacheable, select a projection instead: " + query);
+        }
+
+        Key key = new Key(kind, query.toString(), metadata.clone());
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            return entry.value;
+        }
+
+        long snapshot = generation.get();
+        Object value = loader.get();
+        if (snapshot == generation.get()) {
+            cache.put(key, new Entry(value, entityTypes(metadata)));
+        }
+        return value;
+    }
+
+    private static boolean isCacheableTransaction() {
+        return !TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Set<Class<?>> entityTypes(QueryMetadata metadata) {
+        return metadata.getJoins()
+                       .stream()
+                       .map(JoinExpression::getTarget)
+                       .map(target -> (Class<?>) target.getType())
+                       .filter(QueryResultCache::isEntity)
+                       .collect(Collectors.toSet());
+    }
+
+    private static boolean isEntity(Class<?> type) {
+        return type != null && type.isAnnotationPresent(Entity.class);
+    }
+
+    private enum Kind {
+        LIST, ONE, COUNT
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final Kind kind;
+        private final String jpql;
+        private final QueryMetadata metadata;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        // fetchOne 결과가 없으면 null
+        private final Object value;
+        private final Set<Class<?>> entityTypes;
+    }
+}
@@ -0,0 +1,15 @@
+package learn.jpa.repository;
+
+import learn.jpa.model.Member;
+
+import java.util.Optional;
+
+public interface MemberNaturalIdRepository {
+    /**
+     * 자연 키(이름)로 조회한다.
+     * <p>
+     * 이름 -> 식별자는 자연 키 캐시에서, 엔티티는 영속성 컨텍스트, 2차 캐시, PK 조회 순으로 찾는다.
+     * 같은 이름을 반복해서 조회하면 쿼리가 발생하지 않는다. 팀은 지연 로딩한다.
+     */
+    Optional<Member> loadByName(String name);
+}
@@ -0,0 +1,20 @@
+package learn.jpa.repository;
+
+import learn.jpa.model.Member;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+public class MemberNaturalIdRepositoryImpl implements MemberNaturalIdRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Member> loadByName(String name) {
+        return entityManager.unwrap(Session.class)
+                            .bySimpleNaturalId(Member.class)
+                            .loadOptional(name);
+    }
+}
@@ -1,6 +1,7 @@
 package learn.jpa.repository;
 
 import learn.jpa.model.Member;
+import learn.jpa.support.FetchPlans;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -13,7 +14,7 @@ import java.util.List;
  *
  * @see "Han-Changhun/src/test/resources/query-method-0.png"
  */
-public interface MemberRepository extends JpaRepository<Member, Long> {
-    @EntityGraph(attributePaths = "team")
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberNaturalIdRepository {
+    @EntityGraph(FetchPlans.MEMBER_WITH_TEAM)
     Member findByName(String name);
 }
@@ -0,0 +1,9 @@
+package learn.jpa.repository;
+
+import learn.jpa.model.Simple;
+import learn.jpa.support.Window;
+
+public interface SimpleKeysetRepository {
+    // 이름 오름차순(name asc, id asc) 키셋 페이징
+    Window<Simple> findWindowByNameStartingWithOrderByName(String prefix, String cursor, int size);
+}
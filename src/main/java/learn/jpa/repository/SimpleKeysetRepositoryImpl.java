@@ -0,0 +1,27 @@
+package learn.jpa.repository;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import learn.jpa.model.Simple;
+import learn.jpa.support.Keysets;
+import learn.jpa.support.Window;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static learn.jpa.model.QSimple.simple;
+
+// Querydsl 조회 전용: 라우팅 DataSource 를 사용하면 복제본에서 실행
+@Transactional(readOnly = true)
+public class SimpleKeysetRepositoryImpl implements SimpleKeysetRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<Simple> findWindowByNameStartingWithOrderByName(String prefix, String cursor, int size) {
+        return Keysets.fetch(new JPAQueryFactory(entityManager).selectFrom(simple).where(simple.name.startsWith(prefix)),
+                             simple.name, simple.id, Order.ASC, cursor, size,
+                             Simple::getName, Simple::getId);
+    }
+}
@@ -1,8 +1,15 @@
 package learn.jpa.repository;
 
 import learn.jpa.model.Simple;
+import learn.jpa.support.KeysetCursor;
+import learn.jpa.support.count.CountMode;
+import learn.jpa.support.count.CountStrategy;
+import learn.jpa.support.Window;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 
@@ -13,7 +20,7 @@ import java.util.List;
  *
  * @see "Han-Changhun/src/test/resources/query-method-0.png"
  */
-public interface SimpleRepository extends JpaRepository<Simple, Long> {
+public interface SimpleRepository extends JpaRepository<Simple, Long>, SimpleKeysetRepository, SimpleStreamRepository {
     // 수식어를 생략해도 findByNameIs, findByNameEquals 와 같이 동작함(==조건검색)
     Simple findByName(String name);
 
@@ -60,5 +67,21 @@ public interface SimpleRepository extends JpaRepository<Simple, Long> {
 
     List<Simple> findFirst2ByNameOrderByIdDesc(String name);
 
+    // 같은 이름 조건의 count 결과를 30초간 캐싱
+    @CountStrategy(value = CountMode.CACHED, slice = "readByName", ttlSeconds = 30)
     Page<Simple> findByName(String name, Pageable pageable);
+
+    Slice<Simple> readByName(String name, Pageable pageable);
+
+    // 반환 타입이 List 이면 Pageable 의 limit 만 적용되고 카운트쿼리는 발생하지 않음
+    List<Simple> findByNameAndIdGreaterThan(String name, Long id, Pageable pageable);
+
+    // 키셋 페이징: 이름이 같은 레코드를 id 오름차순으로 커서 이후부터 size 만큼 조회(커서에는 id 만 담는다)
+    // 이름이 고정되므로 (name, id) 정렬과 같고, name = ? and id > ? 로 idx_simple_name_id 범위를 읽는다
+    // 정렬 키가 바뀌는 (name, id) 키셋은 findWindowByNameStartingWithOrderByName
+    default Window<Simple> findWindowByName(String name, String cursor, int size) {
+        long afterId = cursor == null ? 0L : KeysetCursor.decode(cursor).getId();
+        List<Simple> rows = findByNameAndIdGreaterThan(name, afterId, PageRequest.of(0, size + 1, Sort.by("id")));
+        return Window.of(rows, size, simple -> KeysetCursor.of(simple.getId()));
+    }
 }
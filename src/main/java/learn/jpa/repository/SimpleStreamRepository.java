@@ -0,0 +1,24 @@
+package learn.jpa.repository;
+
+import learn.jpa.model.Simple;
+
+import java.util.stream.Stream;
+
+/**
+ * 대량 조회용 Stream 메서드. 트랜잭션 안에서 try-with-resources 로 소비해야 한다.
+ */
+public interface SimpleStreamRepository {
+    int DEFAULT_FETCH_SIZE = 500;
+
+    Stream<Simple> streamAllByIdAfter(Long id, int fetchSize);
+
+    default Stream<Simple> streamAllByIdAfter(Long id) {
+        return streamAllByIdAfter(id, DEFAULT_FETCH_SIZE);
+    }
+
+    Stream<Simple> streamAllByName(String name, int fetchSize);
+
+    default Stream<Simple> streamAllByName(String name) {
+        return streamAllByName(name, DEFAULT_FETCH_SIZE);
+    }
+}
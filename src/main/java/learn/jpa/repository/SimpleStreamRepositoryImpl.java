@@ -0,0 +1,36 @@
+package learn.jpa.repository;
+
+import learn.jpa.model.Simple;
+import learn.jpa.support.ScrollingStreams;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.stream.Stream;
+
+// 커서가 열린 커넥션을 사용하므로 호출자의 트랜잭션이 반드시 있어야 한다
+@Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+public class SimpleStreamRepositoryImpl implements SimpleStreamRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Simple> streamAllByIdAfter(Long id, int fetchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        return ScrollingStreams.stream(session,
+                                       session.createQuery("select s from Simple s where s.id > :id order by s.id", Simple.class)
+                                              .setParameter("id", id),
+                                       fetchSize);
+    }
+
+    @Override
+    public Stream<Simple> streamAllByName(String name, int fetchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        return ScrollingStreams.stream(session,
+                                       session.createQuery("select s from Simple s where s.name = :name order by s.id", Simple.class)
+                                              .setParameter("name", name),
+                                       fetchSize);
+    }
+}
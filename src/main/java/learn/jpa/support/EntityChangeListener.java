@@ -0,0 +1,126 @@
+package learn.jpa.support;
+
+import org.hibernate.event.service.spi.EventListenerGroup;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 엔티티가 추가, 수정, 삭제되면 엔티티 타입을 전달한다. 캐시 무효화에 사용한다.
+ * <p>
+ * flush 시점(POST_*)과 커밋 이후(POST_COMMIT_*)에 모두 등록한다.
+ * flush 와 커밋 사이에 다른 트랜잭션이 이전 값을 다시 캐싱하는 경우를 커밋 이후 무효화로 막는다.
+ * JPQL 벌크 연산(update, delete 쿼리)과 JDBC 로 직접 쓰는 경로는 이벤트가 발생하지 않으므로 {@link #changed}로 직접 알려야 한다.
+ * <p>
+ * 하이버네이트는 같은 클래스의 리스너를 다시 추가하면 예외를 던지므로, 세션 팩토리마다 리스너는 하나만 등록하고
+ * 이후 {@link #register}는 이미 등록된 리스너에 콜백만 추가한다.
+ */
+public class EntityChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private final List<Consumer<Class<?>>> onChanges = new CopyOnWriteArrayList<>();
+
+    public static void register(EntityManagerFactory entityManagerFactory, Consumer<Class<?>> onChange) {
+        EventListenerRegistry registry = registry(entityManagerFactory);
+        synchronized (registry) {
+            EntityChangeListener listener = find(registry.getEventListenerGroup(EventType.POST_INSERT));
+            if (listener == null) {
+                listener = new EntityChangeListener();
+                registry.appendListeners(EventType.POST_INSERT, listener);
+                registry.appendListeners(EventType.POST_UPDATE, listener);
+                registry.appendListeners(EventType.POST_DELETE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+                registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+            }
+            listener.onChanges.add(onChange);
+        }
+    }
+
+    /**
+     * 하이버네이트 이벤트 없이 변경된 엔티티 타입을 알린다. flush 시점과 같이 바로 알리고, 트랜잭션 안이면 커밋 이후에 한 번 더 알린다.
+     */
+    public static void changed(EntityManagerFactory entityManagerFactory, Class<?> entityType) {
+        EntityChangeListener listener = find(registry(entityManagerFactory).getEventListenerGroup(EventType.POST_INSERT));
+        if (listener == null) {
+            return;
+        }
+        listener.onChange(entityType);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    listener.onChange(entityType);
+                }
+            });
+        }
+    }
+
+    private static EventListenerRegistry registry(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                                   .getServiceRegistry()
+                                   .getService(EventListenerRegistry.class);
+    }
+
+    private static EntityChangeListener find(EventListenerGroup<?> group) {
+        for (Object listener : group.listeners()) {
+            if (listener instanceof EntityChangeListener) {
+                return (EntityChangeListener) listener;
+            }
+        }
+        return null;
+    }
+
+    private void onChange(Class<?> entityType) {
+        for (Consumer<Class<?>> onChange : onChanges) {
+            onChange.accept(entityType);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onChange(event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        onChange(event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        onChange(event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        onChange(event.getEntity().getClass());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package learn.jpa.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Subgraph;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.PluralAttribute;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 이름 붙은 페치 플랜(엔티티 그래프) 저장소.
+ * <p>
+ * 엔티티에 {@code @NamedEntityGraph}로 선언한 플랜은 {@link #declared(String...)}로 찾아 등록한다(속성은 하이버네이트가 시작할 때 검증).
+ * 선언되지 않은 플랜을 찾으면 애플리케이션이 시작되지 않는다.
+ * <p>
+ * 코드로 만드는 플랜은 {@link #register(String, Class, String...)}로 등록한다. 메타모델로 속성 경로를 검증하고
+ * EntityManagerFactory 에 Named EntityGraph 로 등록하며, 속성 경로는 "team", "team.members" 처럼 점으로 하위 그래프를 표현한다.
+ * <p>
+ * fetchgraph 힌트를 사용하므로 플랜에 없는 속성은 매핑과 관계없이 지연 로딩한다.
+ */
+public class FetchPlanRegistry {
+    public static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final Map<String, EntityGraph<?>> graphs = new LinkedHashMap<>();
+
+    public FetchPlanRegistry(EntityManagerFactory entityManagerFactory, EntityManager entityManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+    }
+
+    public FetchPlanRegistry declared(String... names) {
+        for (String name : names) {
+            if (graphs.containsKey(name)) {
+                throw new IllegalStateException("Duplicate fetch plan: " + name);
+            }
+            try {
+                graphs.put(name, entityManager.getEntityGraph(name));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalStateException(String.format("Fetch plan '%s' is not declared with @NamedEntityGraph", name), e);
+            }
+        }
+        return this;
+    }
+
+    public <T> FetchPlanRegistry register(String name, Class<T> entityClass, String... attributePaths) {
+        if (graphs.containsKey(name)) {
+            throw new IllegalStateException("Duplicate fetch plan: " + name);
+        }
+        Metamodel metamodel = entityManagerFactory.getMetamodel();
+        EntityGraph<T> graph = entityManagerFactory.createEntityGraph(entityClass);
+        for (String attributePath : attributePaths) {
+            try {
+                addAttributePath(graph, metamodel.managedType(entityClass), List.of(attributePath.split("\\.")));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalStateException(String.format("Fetch plan '%s' references unknown attribute %s.%s",
+                                                              name, entityClass.getSimpleName(), attributePath), e);
+            }
+        }
+        entityManagerFactory.addNamedEntityGraph(name, graph);
+        graphs.put(name, graph);
+        return this;
+    }
+
+    public EntityGraph<?> getGraph(String name) {
+        EntityGraph<?> graph = graphs.get(name);
+        if (graph == null) {
+            throw new IllegalArgumentException("Unknown fetch plan: " + name);
+        }
+        return graph;
+    }
+
+    public Map<String, EntityGraph<?>> getGraphs() {
+        return Collections.unmodifiableMap(graphs);
+    }
+
+    public <Q extends JPAQuery<?>> Q apply(Q query, String name) {
+        query.setHint(FETCH_GRAPH, getGraph(name));
+        return query;
+    }
+
+    public <T> Optional<T> findById(Class<T> entityClass, Object id, String name) {
+        return Optional.ofNullable(entityManager.find(entityClass, id, Map.of(FETCH_GRAPH, getGraph(name))));
+    }
+
+    private static void addAttributePath(EntityGraph<?> graph, ManagedType<?> type, List<String> path) {
+        String attributeName = path.get(0);
+        Attribute<?, ?> attribute = type.getAttribute(attributeName);
+        if (path.size() == 1) {
+            graph.addAttributeNodes(attributeName);
+            return;
+        }
+        addAttributePath(graph.addSubgraph(attributeName), targetType(attribute), path.subList(1, path.size()));
+    }
+
+    private static void addAttributePath(Subgraph<?> graph, ManagedType<?> type, List<String> path) {
+        String attributeName = path.get(0);
+        Attribute<?, ?> attribute = type.getAttribute(attributeName);
+        if (path.size() == 1) {
+            graph.addAttributeNodes(attributeName);
+            return;
+        }
+        addAttributePath(graph.addSubgraph(attributeName), targetType(attribute), path.subList(1, path.size()));
+    }
+
+    private static ManagedType<?> targetType(Attribute<?, ?> attribute) {
+        Type<?> type = attribute instanceof PluralAttribute
+                       ? ((PluralAttribute<?, ?, ?>) attribute).getElementType()
+                       : ((SingularAttribute<?, ?>) attribute).getType();
+        if (!(type instanceof ManagedType)) {
+            throw new IllegalArgumentException(attribute.getName() + " is not an association");
+        }
+        return (ManagedType<?>) type;
+    }
+}
@@ -0,0 +1,15 @@
+package learn.jpa.support;
+
+/**
+ * 유스케이스별 페치 플랜 이름. 플랜은 엔티티에 {@code @NamedEntityGraph(name = FetchPlans.XXX)}로 선언하므로
+ * JpaConfig 를 불러오지 않는 테스트 슬라이스에서도 파생 쿼리의 엔티티 그래프를 찾을 수 있다.
+ * <p>
+ * 파생 쿼리에는 {@code @EntityGraph(FetchPlans.MEMBER_WITH_TEAM)}, Querydsl 과 findById 에는 {@link FetchPlanRegistry}를 사용한다.
+ */
+public final class FetchPlans {
+    public static final String MEMBER_WITH_TEAM = "member-with-team";
+    public static final String CART_WITH_ITEMS = "cart-with-items";
+
+    private FetchPlans() {
+    }
+}
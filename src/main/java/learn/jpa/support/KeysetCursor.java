@@ -0,0 +1,82 @@
+package learn.jpa.support;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징에서 마지막으로 조회한 행의 위치(정렬 키 + 식별자).
+ * <p>
+ * 클라이언트에는 {@link #encode()}로 만든 불투명한 토큰으로 전달한다.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class KeysetCursor {
+    private static final String DELIMITER = ":";
+
+    private final Object key;
+    private final Long id;
+
+    public static KeysetCursor of(Long id) {
+        return new KeysetCursor(null, id);
+    }
+
+    public static KeysetCursor of(Object key, Long id) {
+        return new KeysetCursor(key, id);
+    }
+
+    public String encode() {
+        String token = id + DELIMITER + typeOf(key) + DELIMITER + (key == null ? "" : key.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        String[] token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(DELIMITER, 3);
+        if (token.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new KeysetCursor(parse(token[1], token[2]), Long.valueOf(token[0]));
+    }
+
+    private static String typeOf(Object key) {
+        if (key == null) {
+            return "n";
+        }
+        if (key instanceof String) {
+            return "s";
+        }
+        if (key instanceof Long) {
+            return "l";
+        }
+        if (key instanceof Integer) {
+            return "i";
+        }
+        if (key instanceof LocalDateTime) {
+            return "t";
+        }
+        throw new IllegalArgumentException("Unsupported keyset type: " + key.getClass());
+    }
+
+    private static Object parse(String type, String value) {
+        switch (type) {
+            case "n":
+                return null;
+            case "s":
+                return value;
+            case "l":
+                return Long.valueOf(value);
+            case "i":
+                return Integer.valueOf(value);
+            case "t":
+                return LocalDateTime.parse(value);
+            default:
+                throw new IllegalArgumentException("Unsupported keyset type: " + type);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package learn.jpa.support;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Querydsl 쿼리에 (정렬 키, 식별자) 키셋 페이징을 적용한다.
+ * <p>
+ * OFFSET 으로 앞선 행을 건너뛰지 않고 마지막 위치 이후부터 인덱스를 탐색하므로, 몇 번째 페이지든 조회 비용이 같다.
+ * (정렬 키, 식별자)에 복합 인덱스가 있어야 효과가 있으며 정렬 키는 null 이 아니어야 한다.
+ */
+public final class Keysets {
+    private Keysets() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, K extends Comparable<?>> Window<T> fetch(JPAQuery<T> query,
+                                                               ComparableExpression<K> key,
+                                                               NumberPath<Long> id,
+                                                               Order order,
+                                                               String cursor,
+                                                               int size,
+                                                               Function<T, K> keyOf,
+                                                               Function<T, Long> idOf) {
+        if (cursor != null) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            K lastKey = (K) after.getKey();
+            query.where(order == Order.ASC
+                        ? key.gt(lastKey).or(key.eq(lastKey).and(id.gt(after.getId())))
+                        : key.lt(lastKey).or(key.eq(lastKey).and(id.lt(after.getId()))));
+        }
+        List<T> rows = query.orderBy(new OrderSpecifier<>(order, key), new OrderSpecifier<>(order, id))
+                            .limit(size + 1L)
+                            .fetch();
+        return Window.of(rows, size, row -> KeysetCursor.of(keyOf.apply(row), idOf.apply(row)));
+    }
+}
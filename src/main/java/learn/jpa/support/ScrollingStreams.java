@@ -0,0 +1,92 @@
+package learn.jpa.support;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 조회 결과를 전진 전용 커서로 읽는 Stream.
+ * <p>
+ * 다음 엔티티를 읽을 때 이전 엔티티를 영속성 컨텍스트에서 분리하므로 결과 건수와 무관하게 힙 사용량이 일정하다.
+ * 소비자가 초기화한 지연 로딩 연관 엔티티는 분리되지 않으므로 연관 엔티티가 필요하면 페치 조인을 사용한다.
+ * 트랜잭션 안에서 소비해야 하며, try-with-resources 로 닫거나 끝까지 소비하면 커서가 닫힌다.
+ */
+public final class ScrollingStreams {
+    private ScrollingStreams() {
+    }
+
+    public static <T> Stream<T> stream(Session session, Query<T> query, int fetchSize) {
+        ScrollableResults results = query.setFetchSize(fetchSize)
+                                         .setReadOnly(true)
+                                         .scroll(ScrollMode.FORWARD_ONLY);
+        DetachingIterator<T> iterator = new DetachingIterator<>(session, results);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                            .onClose(iterator::close);
+    }
+
+    private static class DetachingIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Session session;
+        private final ScrollableResults results;
+        private T previous;
+        private T next;
+        private boolean closed;
+
+        private DetachingIterator(Session session, ScrollableResults results) {
+            this.session = session;
+            this.results = results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            detachPrevious();
+            if (results.next()) {
+                next = (T) results.get(0);
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            previous = next;
+            next = null;
+            return previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            detachPrevious();
+            results.close();
+        }
+
+        private void detachPrevious() {
+            if (previous != null && session.isOpen()) {
+                session.detach(previous);
+            }
+            previous = null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package learn.jpa.support;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 컬렉션을 페치 조인한 애그리거트를 2단계로 페이징한다.
+ * <p>
+ * 컬렉션 페치 조인에 페이징을 적용하면 하이버네이트는 전체 결과를 읽은 뒤 메모리에서 페이징한다(HHH000104).
+ * 먼저 루트의 식별자만 페이징(limit/offset 또는 키셋)하여 조회하고, 그 식별자들로 컬렉션과 함께 애그리거트를 조회한 뒤
+ * 식별자 순서대로 정렬한다.
+ */
+public final class TwoPhasePaging {
+    private TwoPhasePaging() {
+    }
+
+    public static <T, ID> Page<T> page(Page<ID> ids,
+                                       Function<Collection<ID>, ? extends Collection<T>> loader,
+                                       Function<T, ID> idOf) {
+        return new PageImpl<>(load(ids.getContent(), loader, idOf), ids.getPageable(), ids.getTotalElements());
+    }
+
+    public static <T, ID> Window<T> window(Window<ID> ids,
+                                           Function<Collection<ID>, ? extends Collection<T>> loader,
+                                           Function<T, ID> idOf) {
+        return ids.withContent(load(ids.getContent(), loader, idOf));
+    }
+
+    /**
+     * @return ids 순서의 애그리거트. 그 사이 삭제된 식별자는 빠진다.
+     */
+    public static <T, ID> List<T> load(List<ID> ids,
+                                       Function<Collection<ID>, ? extends Collection<T>> loader,
+                                       Function<T, ID> idOf) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 페치 조인 결과는 컬렉션 원소 수만큼 루트가 중복될 수 있다
+        Map<ID, T> byId = new HashMap<>();
+        for (T aggregate : loader.apply(ids)) {
+            byId.putIfAbsent(idOf.apply(aggregate), aggregate);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T aggregate = byId.get(id);
+            if (aggregate != null) {
+                ordered.add(aggregate);
+            }
+        }
+        return ordered;
+    }
+}
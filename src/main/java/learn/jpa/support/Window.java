@@ -0,0 +1,43 @@
+package learn.jpa.support;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 키셋 페이징 결과. 다음 페이지는 {@link #getNextCursor()}를 전달해 조회한다.
+ * <p>
+ * Page 와 달리 전체 개수를 세지 않으며, 요청한 크기보다 1건 더 조회하여 다음 페이지 존재 여부를 판단한다.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Window<T> {
+    private final List<T> content;
+    private final String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    // 커서는 유지하고 내용만 바꾼다(예: 식별자 -> 애그리거트)
+    public <R> Window<R> withContent(List<R> content) {
+        return new Window<>(content, nextCursor);
+    }
+
+    /**
+     * @param rows size + 1 건까지 조회한 결과
+     */
+    public static <T> Window<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new Window<>(new ArrayList<>(rows), null);
+        }
+        List<T> content = new ArrayList<>(rows.subList(0, size));
+        return new Window<>(content, cursorOf.apply(content.get(size - 1)).encode());
+    }
+}
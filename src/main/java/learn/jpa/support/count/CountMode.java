@@ -0,0 +1,12 @@
+package learn.jpa.support.count;
+
+public enum CountMode {
+    // Data-JPA 기본 동작(매번 count 쿼리)
+    EXACT,
+    // 정확한 개수를 조건별로 캐싱, TTL 만료 또는 엔티티 변경 시 무효화
+    CACHED,
+    // 테이블 통계의 추정 행 수
+    ESTIMATED,
+    // cap 건까지만 세고 넘으면 "cap+" 로 표시
+    CAPPED
+}
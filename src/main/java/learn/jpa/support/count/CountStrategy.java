@@ -0,0 +1,37 @@
+package learn.jpa.support.count;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Page 를 반환하는 리포지토리 메서드의 전체 개수 계산 방법을 지정한다.
+ * <p>
+ * 본문은 {@link #slice()}에 지정한 같은 파라미터의 Slice 메서드로 조회하므로 count 쿼리를 건너뛸 수 있다.
+ *
+ * <pre>
+ * &#64;CountStrategy(value = CountMode.CAPPED, slice = "readAllByNameContaining", count = "countByNameContaining")
+ * Page&lt;Item&gt; findAllByNameContaining(String name, Pageable pageable);
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CountStrategy {
+    CountMode value();
+
+    // 같은 파라미터를 받고 Slice 를 반환하는 메서드 이름
+    String slice();
+
+    // CACHED 에서 캐싱된 개수의 유효 시간
+    long ttlSeconds() default 60;
+
+    // CAPPED 에서 셀 최대 개수
+    int cap() default 10_000;
+
+    // CAPPED 에서 cap 미만일 때 호출할, Pageable 을 제외한 같은 파라미터를 받고 개수를 반환하는 메서드 이름
+    // 비어있으면 원래 Page 메서드를 실행한다(본문과 count 쿼리가 다시 발생)
+    String count() default "";
+}
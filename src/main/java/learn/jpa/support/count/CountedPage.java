@@ -0,0 +1,27 @@
+package learn.jpa.support.count;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 개수 계산 방법과 정확도를 함께 담은 Page
+ */
+@Getter
+public class CountedPage<T> extends PageImpl<T> {
+    private final CountMode countMode;
+    private final boolean exact;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, CountMode countMode, boolean exact) {
+        super(content, pageable, total);
+        this.countMode = countMode;
+        this.exact = exact;
+    }
+
+    // 화면 표시용 전체 개수(예: "10,000+")
+    public String getTotalLabel() {
+        return String.format(exact ? "%,d" : "%,d+", getTotalElements());
+    }
+}
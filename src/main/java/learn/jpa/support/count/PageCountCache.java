@@ -0,0 +1,76 @@
+package learn.jpa.support.count;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 리포지토리 메서드와 조건 파라미터별 전체 개수 캐시.
+ * <p>
+ * 엔티티가 추가, 수정, 삭제되면 해당 엔티티의 항목을 모두 비운다.
+ */
+public class PageCountCache {
+    private final Cache<Key, Entry> cache;
+
+    public PageCountCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maximumSize)
+                             .expireAfter(new Expiry<Key, Entry>() {
+                                 @Override
+                                 public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                                     return entry.ttlNanos;
+                                 }
+
+                                 @Override
+                                 public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                                     return entry.ttlNanos;
+                                 }
+
+                                 @Override
+                                 public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                                     return currentDuration;
+                                 }
+                             })
+                             .build();
+    }
+
+    public Long get(Key key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry == null ? null : entry.total;
+    }
+
+    public void put(Key key, long total, Duration ttl) {
+        cache.put(key, new Entry(total, ttl.toNanos()));
+    }
+
+    public void invalidate(Class<?> domainType) {
+        cache.asMap().keySet().removeIf(key -> key.domainType.isAssignableFrom(domainType));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static class Key {
+        private final Class<?> domainType;
+        private final Method method;
+        // Pageable 을 제외한 조건 파라미터
+        private final List<Object> arguments;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final long total;
+        private final long ttlNanos;
+    }
+}
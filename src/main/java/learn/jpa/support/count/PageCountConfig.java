@@ -0,0 +1,51 @@
+package learn.jpa.support.count;
+
+import learn.jpa.support.EntityChangeListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 모든 리포지토리 프록시에 {@link PageCountInterceptor}를 추가하고, 엔티티 변경 이벤트로 캐시를 무효화한다.
+ */
+@Configuration
+public class PageCountConfig {
+    private static final long MAXIMUM_CACHED_COUNTS = 10_000;
+
+    @Bean
+    public PageCountCache pageCountCache(EntityManagerFactory entityManagerFactory) {
+        PageCountCache cache = new PageCountCache(MAXIMUM_CACHED_COUNTS);
+        EntityChangeListener.register(entityManagerFactory, cache::invalidate);
+        return cache;
+    }
+
+    @Bean
+    public TableStatistics tableStatistics(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        return new TableStatistics(entityManagerFactory, jdbcTemplate);
+    }
+
+    // 리포지토리 팩토리 빈이 초기화되기 전에 프록시 후처리기를 추가해야 하므로 static 으로 등록한다
+    @Bean
+    public static BeanPostProcessor pageCountRepositoryPostProcessor(ObjectProvider<PageCountCache> cache,
+                                                                     ObjectProvider<TableStatistics> statistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(
+                            factory -> factory.addRepositoryProxyPostProcessor(
+                                    (proxyFactory, information) -> proxyFactory.addAdvice(
+                                            new PageCountInterceptor(information.getDomainType(),
+                                                                     cache.getObject(),
+                                                                     statistics.getObject()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,190 @@
+package learn.jpa.support.count;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CountStrategy}가 선언된 Page 메서드 호출을 가로채 count 쿼리를 대신한다.
+ * <p>
+ * 리포지토리 프록시마다 하나씩 등록된다.
+ */
+public class PageCountInterceptor implements MethodInterceptor {
+    private final Class<?> domainType;
+    private final PageCountCache cache;
+    private final TableStatistics statistics;
+    private final Map<Method, Optional<CountStrategy>> strategies = new ConcurrentHashMap<>();
+    private final Map<Method, Method> sliceMethods = new ConcurrentHashMap<>();
+    private final Map<Method, Method> countMethods = new ConcurrentHashMap<>();
+
+    public PageCountInterceptor(Class<?> domainType, PageCountCache cache, TableStatistics statistics) {
+        this.domainType = domainType;
+        this.cache = cache;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        CountStrategy strategy = strategies.computeIfAbsent(method, this::findStrategy).orElse(null);
+        if (strategy == null || strategy.value() == CountMode.EXACT) {
+            return invocation.proceed();
+        }
+
+        int pageableIndex = pageableIndex(method);
+        if (pageableIndex < 0) {
+            return invocation.proceed();
+        }
+
+        Pageable pageable = (Pageable) invocation.getArguments()[pageableIndex];
+        if (pageable == null || pageable.isUnpaged()) {
+            return invocation.proceed();
+        }
+
+        switch (strategy.value()) {
+            case CACHED:
+                return cached(invocation, strategy, pageable, pageableIndex);
+            case ESTIMATED:
+                return estimated(invocation, strategy, pageable, pageableIndex);
+            case CAPPED:
+                return capped(invocation, strategy, pageable, pageableIndex);
+            default:
+                return invocation.proceed();
+        }
+    }
+
+    // 읽기 쓰기 트랜잭션에서 flush 한 미커밋 데이터가 포함된 개수를 다른 트랜잭션과 공유하지 않도록 캐시를 사용하지 않는다
+    private Object cached(MethodInvocation invocation, CountStrategy strategy, Pageable pageable, int pageableIndex) throws Throwable {
+        if (!isCacheableTransaction()) {
+            return invocation.proceed();
+        }
+        PageCountCache.Key key = new PageCountCache.Key(domainType, invocation.getMethod(), conditions(invocation, pageableIndex));
+        Long total = cache.get(key);
+        if (total == null) {
+            Page<?> page = (Page<?>) invocation.proceed();
+            cache.put(key, page.getTotalElements(), Duration.ofSeconds(strategy.ttlSeconds()));
+            return page;
+        }
+        Slice<?> slice = slice(invocation, strategy, pageable, pageableIndex);
+        return new CountedPage<>(slice.getContent(), pageable, total, CountMode.CACHED, true);
+    }
+
+    private static boolean isCacheableTransaction() {
+        return !TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Object estimated(MethodInvocation invocation, CountStrategy strategy, Pageable pageable, int pageableIndex) throws Throwable {
+        Slice<?> slice = slice(invocation, strategy, pageable, pageableIndex);
+        long fetched = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext()) {
+            return new CountedPage<>(slice.getContent(), pageable, fetched, CountMode.ESTIMATED, true);
+        }
+        // 다음 페이지가 있으므로 최소 fetched + 1 건
+        long total = Math.max(statistics.estimate(domainType), fetched + 1);
+        return new CountedPage<>(slice.getContent(), pageable, total, CountMode.ESTIMATED, false);
+    }
+
+    private Object capped(MethodInvocation invocation, CountStrategy strategy, Pageable pageable, int pageableIndex) throws Throwable {
+        Slice<?> slice = slice(invocation, strategy, pageable, pageableIndex);
+        if (!slice.hasNext()) {
+            long total = pageable.getOffset() + slice.getNumberOfElements();
+            return new CountedPage<>(slice.getContent(), pageable, total, CountMode.CAPPED, true);
+        }
+        // cap 번째 레코드가 있으면 더 세지 않는다
+        Slice<?> probe = slice(invocation, strategy, PageRequest.of(strategy.cap(), 1), pageableIndex);
+        if (probe.hasContent()) {
+            return new CountedPage<>(slice.getContent(), pageable, strategy.cap(), CountMode.CAPPED, false);
+        }
+        if (strategy.count().isEmpty()) {
+            return invocation.proceed();
+        }
+        // cap 미만이므로 이미 조회한 본문은 두고 count 쿼리만 실행한다
+        long total = count(invocation, strategy, pageableIndex);
+        return new CountedPage<>(slice.getContent(), pageable, total, CountMode.CAPPED, true);
+    }
+
+    private Slice<?> slice(MethodInvocation invocation, CountStrategy strategy, Pageable pageable, int pageableIndex) throws Throwable {
+        Method sliceMethod = sliceMethods.computeIfAbsent(invocation.getMethod(), method -> findSliceMethod(method, strategy));
+        Object[] arguments = invocation.getArguments().clone();
+        arguments[pageableIndex] = pageable;
+        try {
+            return (Slice<?>) sliceMethod.invoke(((ProxyMethodInvocation) invocation).getProxy(), arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private long count(MethodInvocation invocation, CountStrategy strategy, int pageableIndex) throws Throwable {
+        Method countMethod = countMethods.computeIfAbsent(invocation.getMethod(), method -> findCountMethod(method, strategy, pageableIndex));
+        try {
+            return ((Number) countMethod.invoke(((ProxyMethodInvocation) invocation).getProxy(),
+                                                conditions(invocation, pageableIndex).toArray())).longValue();
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private Optional<CountStrategy> findStrategy(Method method) {
+        if (!Page.class.equals(method.getReturnType())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(AnnotatedElementUtils.findMergedAnnotation(method, CountStrategy.class));
+    }
+
+    private Method findSliceMethod(Method method, CountStrategy strategy) {
+        Method sliceMethod = ReflectionUtils.findMethod(method.getDeclaringClass(), strategy.slice(), method.getParameterTypes());
+        if (sliceMethod == null || !Slice.class.equals(sliceMethod.getReturnType())) {
+            throw new IllegalStateException(String.format("%s: Slice method %s(%s) not found",
+                                                          method, strategy.slice(), List.of(method.getParameterTypes())));
+        }
+        return sliceMethod;
+    }
+
+    private Method findCountMethod(Method method, CountStrategy strategy, int pageableIndex) {
+        List<Class<?>> parameterTypes = new ArrayList<>(List.of(method.getParameterTypes()));
+        parameterTypes.remove(pageableIndex);
+        Method countMethod = ReflectionUtils.findMethod(method.getDeclaringClass(), strategy.count(), parameterTypes.toArray(new Class<?>[0]));
+        if (countMethod == null || !(long.class.equals(countMethod.getReturnType()) || Long.class.equals(countMethod.getReturnType()))) {
+            throw new IllegalStateException(String.format("%s: count method %s(%s) not found",
+                                                          method, strategy.count(), parameterTypes));
+        }
+        return countMethod;
+    }
+
+    private static int pageableIndex(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (Pageable.class.isAssignableFrom(parameterTypes[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Object> conditions(MethodInvocation invocation, int pageableIndex) {
+        Object[] arguments = invocation.getArguments();
+        List<Object> conditions = new ArrayList<>(arguments.length - 1);
+        for (int i = 0; i < arguments.length; i++) {
+            if (i != pageableIndex) {
+                conditions.add(arguments[i]);
+            }
+        }
+        return conditions;
+    }
+}
@@ -0,0 +1,38 @@
+package learn.jpa.support.count;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Locale;
+
+/**
+ * 데이터베이스가 관리하는 테이블 통계에서 추정 행 수를 읽는다(H2: INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE).
+ * <p>
+ * 조건과 무관한 테이블 전체 행 수이므로 조건이 있는 쿼리에서는 상한값으로만 의미가 있다.
+ */
+public class TableStatistics {
+    private static final String ROW_COUNT_ESTIMATE =
+            "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES where TABLE_NAME = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableStatistics(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long estimate(Class<?> domainType) {
+        Long estimate = jdbcTemplate.queryForObject(ROW_COUNT_ESTIMATE, Long.class, tableName(domainType));
+        return estimate == null ? 0 : estimate;
+    }
+
+    private String tableName(Class<?> domainType) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                                                                                          .getMetamodel()
+                                                                                          .entityPersister(domainType);
+        return persister.getTableName().toUpperCase(Locale.ROOT);
+    }
+}
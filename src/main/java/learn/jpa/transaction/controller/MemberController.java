@@ -1,6 +1,8 @@
 package learn.jpa.transaction.controller;
 
+import learn.jpa.async.EndpointExecutor;
 import learn.jpa.model.Member;
+import learn.jpa.monitor.QueryBudget;
 import learn.jpa.transaction.service.TestService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,19 +10,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
     private final TestService testService;
+    private final EndpointExecutor endpointExecutor;
 
     @GetMapping("/members/{id}")
+    @QueryBudget(maxStatements = 1, maxDbTimeMillis = 100)
     public Member getMember(@PathVariable("id") Optional<Member> member) {
         return member.orElseGet(null);
     }
 
+    // 외부 API 호출로 오래 걸리는 요청은 별도 실행기에서 처리해 getMember 등 빠른 조회가 서블릿 스레드를 잃지 않게 한다
     @GetMapping("/test")
-    public String test() throws InterruptedException {
-        return testService.testService();
+    public CompletableFuture<String> test() {
+        return endpointExecutor.submit("test", testService::testService);
+    }
+
+    @GetMapping("/test/split")
+    public CompletableFuture<String> testSplit() {
+        return endpointExecutor.submit("test-split", testService::testServiceSplit);
     }
 }
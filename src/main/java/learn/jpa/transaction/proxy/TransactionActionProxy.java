@@ -1,13 +1,24 @@
 package learn.jpa.transaction.proxy;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
+@RequiredArgsConstructor
 public class TransactionActionProxy {
+    private final TransactionActionWriter transactionActionWriter;
+
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void action(final TransactionAction action) {
         action.run();
     }
+
+    // 호출자의 트랜잭션과 무관하게 작성 스레드에서 다른 작업과 묶어 커밋(두 번째 커넥션을 잡지 않는다)
+    public CompletableFuture<Void> actionAsync(final TransactionAction action) {
+        return transactionActionWriter.submit(action);
+    }
 }
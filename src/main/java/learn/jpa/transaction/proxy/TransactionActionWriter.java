@@ -0,0 +1,186 @@
+package learn.jpa.transaction.proxy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 부수 작업(감사 로그 저장 등)을 큐에 쌓아 두고 작성 스레드가 여러 작업을 트랜잭션 하나로 묶어 커밋한다.
+ * <p>
+ * 호출자는 큐에 넣기만 하므로 자신의 트랜잭션이 커넥션을 잡은 채로 두 번째 커넥션을 요청하지 않는다.
+ * 커넥션은 작성 스레드 수만큼만 사용한다.
+ * <p>
+ * 묶음 트랜잭션이 실패하면 작업마다 따로 다시 실행하고, 그래도 실패한 작업은 지수 백오프로 재시도한다(at-least-once).
+ * 같은 작업이 두 번 이상 실행될 수 있으므로 작업은 멱등이어야 한다. 큐는 메모리에만 있으므로 프로세스가 비정상 종료되면 유실된다.
+ */
+@Slf4j
+public class TransactionActionWriter implements DisposableBean {
+    private final TransactionWriterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Entry> queue;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService retryScheduler;
+    private final DistributionSummary batchSize;
+    private final Counter retries;
+    private final Counter dropped;
+    private volatile boolean running = true;
+
+    public TransactionActionWriter(TransactionWriterProperties properties, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        this.writers = Executors.newFixedThreadPool(properties.getThreads(), new CustomizableThreadFactory("transaction-writer-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("transaction-writer-retry-"));
+        Gauge.builder("transaction.writer.queued", queue, BlockingQueue::size).register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("transaction.writer.batch.size").register(meterRegistry);
+        this.retries = Counter.builder("transaction.writer.retries").register(meterRegistry);
+        this.dropped = Counter.builder("transaction.writer.dropped").register(meterRegistry);
+        for (int i = 0; i < properties.getThreads(); i++) {
+            writers.execute(this::drain);
+        }
+    }
+
+    /**
+     * 작업을 큐에 넣는다. 큐가 가득 차면 offerTimeout 동안 기다린 뒤 {@link TransactionQueueFullException} 을 던진다.
+     *
+     * @return 작업이 커밋되면 완료, 재시도 횟수를 모두 쓰면 예외로 완료
+     */
+    public CompletableFuture<Void> submit(TransactionAction action) {
+        if (!running) {
+            throw new RejectedExecutionException("Transaction writer is shut down");
+        }
+        Entry entry = new Entry(action);
+        try {
+            if (!queue.offer(entry, properties.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new TransactionQueueFullException(properties.getQueueCapacity());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+        return entry.result;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // 예약된 재시도를 큐에 넣고, 남은 작업을 모두 커밋한 뒤 종료
+        retryScheduler.shutdown();
+        retryScheduler.awaitTermination(backoff(properties.getMaxAttempts()), TimeUnit.MILLISECONDS);
+        running = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Transaction writer stopped with {} pending actions", queue.size());
+            writers.shutdownNow();
+        }
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        batchSize.record(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(entry -> entry.action.run()));
+            batch.forEach(entry -> entry.result.complete(null));
+        }
+        catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                retry(batch.get(0), e);
+                return;
+            }
+            // 어떤 작업이 실패했는지 모르므로 하나씩 다시 실행한다
+            for (Entry entry : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> entry.action.run());
+                    entry.result.complete(null);
+                }
+                catch (RuntimeException single) {
+                    retry(entry, single);
+                }
+            }
+        }
+    }
+
+    private void retry(Entry entry, RuntimeException cause) {
+        if (++entry.attempts >= properties.getMaxAttempts()) {
+            drop(entry, cause);
+            return;
+        }
+        retries.increment();
+        try {
+            retryScheduler.schedule(() -> requeue(entry, cause), backoff(entry.attempts), TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e) {
+            drop(entry, cause);
+        }
+    }
+
+    private long backoff(int attempts) {
+        return properties.getRetryBackoff().toMillis() << Math.min(attempts - 1, 10);
+    }
+
+    private void requeue(Entry entry, RuntimeException cause) {
+        try {
+            queue.put(entry);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop(entry, cause);
+        }
+    }
+
+    private void drop(Entry entry, RuntimeException cause) {
+        dropped.increment();
+        log.error("Transaction action failed after {} attempts", entry.attempts, cause);
+        entry.result.completeExceptionally(cause);
+    }
+
+    private static class Entry {
+        private final TransactionAction action;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private int attempts;
+
+        private Entry(TransactionAction action) {
+            this.action = action;
+        }
+    }
+}
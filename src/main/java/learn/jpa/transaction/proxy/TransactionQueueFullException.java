@@ -0,0 +1,7 @@
+package learn.jpa.transaction.proxy;
+
+public class TransactionQueueFullException extends RuntimeException {
+    public TransactionQueueFullException(int capacity) {
+        super("Transaction writer queue is full: " + capacity);
+    }
+}
@@ -0,0 +1,119 @@
+package learn.jpa.transaction.proxy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 하나의 긴 트랜잭션을 외부 호출 전후의 짧은 트랜잭션들로 나눈다.
+ * <p>
+ * 외부 API 를 호출하는 동안에는 트랜잭션(커넥션)을 잡고 있지 않으므로 외부 호출이 느려도 커넥션 풀이 고갈되지 않는다.
+ * 단계 사이의 값은 상태 객체로 전달하고, 이후 단계가 실패하면 이미 커밋된 단계의 보상 작업을 역순으로 각각 새 트랜잭션에서 실행한다.
+ *
+ * <pre>
+ * transactionSplitter.flow(new OrderState())
+ *                    .inTransaction(state -&gt; state.orderId = orderRepository.save(order).getId())
+ *                    .compensate(state -&gt; orderRepository.deleteById(state.orderId))
+ *                    .outsideTransaction(state -&gt; state.paymentId = paymentApi.pay(state.orderId))
+ *                    .inTransaction(state -&gt; orderRepository.findById(state.orderId).orElseThrow().paid(state.paymentId))
+ *                    .execute();
+ * </pre>
+ * <p>
+ * 상위 트랜잭션 안에서 호출하면 상위 트랜잭션이 커넥션을 계속 잡고 있으므로 예외가 발생한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionSplitter {
+    private final TransactionActionProxy transactionActionProxy;
+
+    public <S> Flow<S> flow(S state) {
+        return new Flow<>(state);
+    }
+
+    public class Flow<S> {
+        private final S state;
+        private final List<Step<S>> steps = new ArrayList<>();
+
+        private Flow(S state) {
+            this.state = state;
+        }
+
+        // 새 트랜잭션에서 실행하고 바로 커밋한다
+        public Flow<S> inTransaction(Consumer<S> action) {
+            steps.add(new Step<>(action, true));
+            return this;
+        }
+
+        // 트랜잭션 없이 실행한다(외부 API 호출 등)
+        public Flow<S> outsideTransaction(Consumer<S> action) {
+            steps.add(new Step<>(action, false));
+            return this;
+        }
+
+        // 직전 단계가 완료된 뒤 이후 단계가 실패하면 새 트랜잭션에서 실행한다
+        public Flow<S> compensate(Consumer<S> compensation) {
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("No step to compensate");
+            }
+            steps.get(steps.size() - 1).compensation = compensation;
+            return this;
+        }
+
+        public S execute() {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw new IllegalStateException("Split transactions must not run inside an active transaction");
+            }
+            final Deque<Step<S>> completed = new ArrayDeque<>();
+            for (Step<S> step : steps) {
+                try {
+                    if (step.transactional) {
+                        transactionActionProxy.action(() -> step.action.accept(state));
+                    }
+                    else {
+                        step.action.accept(state);
+                    }
+                }
+                catch (RuntimeException e) {
+                    compensate(completed, e);
+                    throw e;
+                }
+                completed.push(step);
+            }
+            return state;
+        }
+
+        private void compensate(Deque<Step<S>> completed, RuntimeException cause) {
+            for (Step<S> step : completed) {
+                if (step.compensation == null) {
+                    continue;
+                }
+                try {
+                    transactionActionProxy.action(() -> step.compensation.accept(state));
+                }
+                catch (RuntimeException e) {
+                    log.error("Compensation failed for state {}", state, e);
+                    cause.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    private static class Step<S> {
+        private final Consumer<S> action;
+        private final boolean transactional;
+        private Consumer<S> compensation;
+
+        private Step(Consumer<S> action, boolean transactional) {
+            this.action = action;
+            this.transactional = transactional;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package learn.jpa.transaction.proxy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(TransactionWriterProperties.class)
+public class TransactionWriterConfig {
+    @Bean
+    public TransactionActionWriter transactionActionWriter(TransactionWriterProperties properties,
+                                                           PlatformTransactionManager transactionManager,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new TransactionActionWriter(properties, transactionManager, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,23 @@
+package learn.jpa.transaction.proxy;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "transaction-writer")
+public class TransactionWriterProperties {
+    // 작성 스레드 수(스레드마다 커넥션 하나를 사용)
+    private int threads = 2;
+    // 트랜잭션 하나로 묶어 실행할 최대 작업 수
+    private int batchSize = 50;
+    // 대기 중인 작업 수 제한, 가득 차면 offerTimeout 동안 호출자를 대기시킨다
+    private int queueCapacity = 10_000;
+    private Duration offerTimeout = Duration.ofSeconds(1);
+    // 실패한 작업의 재시도 횟수와 첫 재시도 간격(재시도마다 2배)
+    private int maxAttempts = 10;
+    private Duration retryBackoff = Duration.ofMillis(100);
+}
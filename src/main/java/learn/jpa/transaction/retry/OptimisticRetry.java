@@ -0,0 +1,28 @@
+package learn.jpa.transaction.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌이 나면 메서드를 새 트랜잭션에서 다시 실행한다.
+ * <p>
+ * 트랜잭션 어드바이스보다 바깥에서 동작하므로 {@code @Transactional} 과 함께 선언하면 시도마다 트랜잭션이 새로 시작된다.
+ * 이미 진행 중인 트랜잭션 안에서 호출되면 재시도하지 않고 예외를 그대로 던진다(바깥 작업 단위가 재시도해야 한다).
+ *
+ * @see OptimisticRetryTemplate
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+    // 최초 실행을 포함한 최대 실행 횟수
+    int maxAttempts() default 5;
+
+    // 첫 재시도 대기 시간, 재시도마다 2배(지터 적용)
+    long backoffMillis() default 10;
+
+    long maxBackoffMillis() default 500;
+}
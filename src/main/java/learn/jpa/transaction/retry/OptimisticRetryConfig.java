@@ -0,0 +1,32 @@
+package learn.jpa.transaction.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class OptimisticRetryConfig {
+    @Bean
+    public OptimisticRetryTemplate optimisticRetryTemplate(PlatformTransactionManager transactionManager, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OptimisticRetryTemplate(transactionManager, RetryPolicy.of(5, 10, 500), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    // aspectj 없이 트랜잭션과 같은 자동 프록시 생성기를 사용하므로 인프라 빈으로 등록한다
+    // 트랜잭션 어드바이저(LOWEST_PRECEDENCE)보다 먼저 실행되어야 시도마다 트랜잭션이 새로 시작된다
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor optimisticRetryAdvisor(ObjectProvider<OptimisticRetryTemplate> optimisticRetryTemplate) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(OptimisticRetry.class),
+                                                                    new OptimisticRetryInterceptor(optimisticRetryTemplate));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
@@ -0,0 +1,36 @@
+package learn.jpa.transaction.retry;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RequiredArgsConstructor
+public class OptimisticRetryInterceptor implements MethodInterceptor {
+    private final ObjectProvider<OptimisticRetryTemplate> optimisticRetryTemplate;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        OptimisticRetry retry = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), OptimisticRetry.class);
+        // 진행 중인 트랜잭션 안에서는 영속성 컨텍스트를 되돌릴 수 없으므로 바깥 작업 단위에 맡긴다
+        if (retry == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        // 시도마다 인터셉터 체인(트랜잭션 어드바이스 포함)을 처음부터 다시 실행한다
+        ProxyMethodInvocation proxyInvocation = (ProxyMethodInvocation) invocation;
+        return optimisticRetryTemplate.getObject().retry(RetryPolicy.of(retry), () -> {
+            try {
+                return proxyInvocation.invocableClone().proceed();
+            }
+            catch (Exception | Error e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package learn.jpa.transaction.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.Callable;
+
+/**
+ * 작업 단위를 새 트랜잭션에서 실행하고, 낙관적 락 충돌이 나면 백오프 후 다시 실행한다.
+ * <p>
+ * SERIALIZABLE 격리 수준처럼 쓰기 트랜잭션을 락으로 줄 세우지 않고, 충돌한 트랜잭션만 다시 실행한다.
+ *
+ * <pre>
+ * optimisticRetryTemplate.execute(status -&gt; memberRepository.findById(id).orElseThrow().changeAge(age));
+ * </pre>
+ */
+@Slf4j
+public class OptimisticRetryTemplate {
+    private final TransactionTemplate transactionTemplate;
+    private final RetryPolicy defaultPolicy;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager, RetryPolicy defaultPolicy, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultPolicy = defaultPolicy;
+        this.retries = Counter.builder("optimistic.lock.retries").register(meterRegistry);
+        this.exhausted = Counter.builder("optimistic.lock.exhausted").register(meterRegistry);
+    }
+
+    public <T> T execute(TransactionCallback<T> work) {
+        return execute(defaultPolicy, work);
+    }
+
+    public <T> T execute(RetryPolicy policy, TransactionCallback<T> work) {
+        try {
+            return retry(policy, () -> transactionTemplate.execute(work));
+        }
+        catch (RuntimeException | Error e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 트랜잭션 경계는 work 가 정한다
+    <T> T retry(RetryPolicy policy, Callable<T> work) throws Exception {
+        int maxAttempts = policy.getMaxAttempts();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.call();
+            }
+            catch (Exception e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                long backoff = policy.backoff(attempt);
+                log.debug("Optimistic lock conflict, retry {}/{} after {}ms", attempt, maxAttempts - 1, backoff);
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package learn.jpa.transaction.retry;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Getter
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    private RetryPolicy(int maxAttempts, long backoffMillis, long maxBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public static RetryPolicy of(int maxAttempts, long backoffMillis, long maxBackoffMillis) {
+        return new RetryPolicy(maxAttempts, backoffMillis, maxBackoffMillis);
+    }
+
+    public static RetryPolicy of(OptimisticRetry retry) {
+        return new RetryPolicy(retry.maxAttempts(), retry.backoffMillis(), retry.maxBackoffMillis());
+    }
+
+    /**
+     * attempt 번째 실패 후 대기 시간. 절반은 지수 백오프, 나머지 절반은 무작위로 정해
+     * 같은 행을 두고 충돌한 트랜잭션들이 같은 시각에 다시 충돌하지 않게 한다.
+     */
+    public long backoff(int attempt) {
+        long exponential = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        long half = exponential / 2;
+        return half + ThreadLocalRandom.current().nextLong(exponential - half + 1);
+    }
+}
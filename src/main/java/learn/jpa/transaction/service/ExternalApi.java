@@ -0,0 +1,30 @@
+package learn.jpa.transaction.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 응답이 느린 외부 API 호출을 흉내낸다.
+ */
+@Component
+public class ExternalApi {
+    private final Duration latency;
+
+    public ExternalApi(@Value("${external-api.latency:100s}") Duration latency) {
+        this.latency = latency;
+    }
+
+    public String call() {
+        System.out.println("외부 API 호출 중...");
+        try {
+            Thread.sleep(latency.toMillis());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("External API call interrupted", e);
+        }
+        return "hi";
+    }
+}
@@ -5,32 +5,79 @@ import learn.jpa.model.User;
 import learn.jpa.repository.MemberRepository;
 import learn.jpa.repository.UserRepository;
 import learn.jpa.transaction.proxy.TransactionActionProxy;
+import learn.jpa.transaction.proxy.TransactionSplitter;
+import learn.jpa.transaction.retry.OptimisticRetry;
 import learn.jpa.type.Gender;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 public class TestService {
     private final MemberRepository memberRepository;
     private final UserRepository userRepository;
     private final TransactionActionProxy transactionActionProxy;
+    private final TransactionSplitter transactionSplitter;
+    private final ExternalApi externalApi;
 
     @Transactional(isolation = Isolation.SERIALIZABLE)
-    public String testService() throws InterruptedException {
+    public String testService() {
         // 원래 트랜잭션이 영속성 컨텍스트에 등록
-        memberRepository.save(Member.createMember("sirooooooo", 12));
+        memberRepository.save(Member.createMember(uniqueName(), 12));
 
-        transactionActionProxy.action(() -> { // 새로운 영속성 컨텍스트가 만들어짐
+        // 작성 스레드가 다른 부수 작업과 묶어 별도 트랜잭션으로 저장(이 요청은 두 번째 커넥션을 잡지 않는다)
+        transactionActionProxy.actionAsync(() -> {
             User user = User.createUser("michel", "password", "test@gmail.com", Gender.MALE);
             userRepository.save(user);
         });
 
-        System.out.println("외부 API 호출 중...");
-        Thread.sleep(1_000 * 100);
-        return "hi";
+        // 외부 API 를 호출하는 동안 트랜잭션과 커넥션을 계속 잡고 있다
+        return externalApi.call();
+    }
+
+    // 외부 API 호출 전후로 트랜잭션을 나누어 호출하는 동안 커넥션을 반납한다
+    public String testServiceSplit() {
+        return transactionSplitter.flow(new TestState())
+                                  .inTransaction(state -> state.memberId = memberRepository.save(Member.createMember(uniqueName(), 12)).getId())
+                                  .compensate(state -> memberRepository.deleteById(state.memberId))
+                                  .inTransaction(state -> userRepository.save(User.createUser("michel", "password", "test@gmail.com", Gender.MALE)))
+                                  .outsideTransaction(state -> state.response = externalApi.call())
+                                  .inTransaction(state -> memberRepository.findById(state.memberId).orElseThrow())
+                                  .execute()
+                .response;
     }
 
+    // 같은 회원을 동시에 수정하면 SERIALIZABLE 은 락을 기다리고 충돌하면 실패한다
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public int increaseAgeSerializable(Long memberId) {
+        return increaseAge(memberRepository.findById(memberId).orElseThrow());
+    }
+
+    // 낙관적 락(@Version): 충돌한 트랜잭션만 새 트랜잭션에서 다시 실행한다
+    @OptimisticRetry(maxAttempts = 20)
+    @Transactional
+    public int increaseAgeOptimistic(Long memberId) {
+        return increaseAge(memberRepository.findById(memberId).orElseThrow());
+    }
+
+    private static int increaseAge(Member member) {
+        member.changeAge(member.getAge() + 1);
+        return member.getAge();
+    }
+
+    // 회원 이름은 자연 키(member.name 유니크 제약)이므로 같은 이름으로 다시 저장하면 제약 조건 위반, 호출마다 다른 이름을 사용한다
+    private static String uniqueName() {
+        return "sirooooooo-" + UUID.randomUUID();
+    }
+
+    @ToString
+    private static class TestState {
+        private Long memberId;
+        private String response;
+    }
 }
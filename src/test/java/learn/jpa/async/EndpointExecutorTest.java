@@ -0,0 +1,70 @@
+package learn.jpa.async;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EndpointExecutorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EndpointExecutor endpointExecutor = new EndpointExecutor(properties(), meterRegistry);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        endpointExecutor.destroy();
+    }
+
+    @Test
+    @DisplayName("동시_실행_수와_대기열을_넘으면_거절하고_다른_엔드포인트는_영향이_없다")
+    void reject() throws Exception {
+        CompletableFuture<String> running = endpointExecutor.submit("slow", this::block);
+        CompletableFuture<String> queued = endpointExecutor.submit("slow", this::block);
+
+        assertThatThrownBy(() -> endpointExecutor.submit("slow", this::block))
+                .isInstanceOf(EndpointRejectedException.class);
+        assertThat(endpointExecutor.submit("fast", () -> "fast").get(1, TimeUnit.SECONDS)).isEqualTo("fast");
+        assertThat(meterRegistry.get("endpoint.rejected").tag("endpoint", "slow").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(1, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(queued.get(1, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(meterRegistry.get("endpoint.queue.time").tag("endpoint", "slow").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("제한_시간을_넘기면_타임아웃_예외로_완료하고_작업을_중단한다")
+    void timeout() {
+        CompletableFuture<String> result = endpointExecutor.submit("timeout", this::block);
+
+        assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(EndpointTimeoutException.class);
+    }
+
+    private String block() throws InterruptedException {
+        release.await();
+        return "done";
+    }
+
+    private static AsyncEndpointProperties properties() {
+        AsyncEndpointProperties properties = new AsyncEndpointProperties();
+        properties.setVirtualThreads(false);
+        AsyncEndpointProperties.Limits slow = new AsyncEndpointProperties.Limits();
+        slow.setMaxConcurrency(1);
+        slow.setQueueCapacity(1);
+        properties.getEndpoints().put("slow", slow);
+        AsyncEndpointProperties.Limits timeout = new AsyncEndpointProperties.Limits();
+        timeout.setTimeout(Duration.ofMillis(100));
+        properties.getEndpoints().put("timeout", timeout);
+        return properties;
+    }
+}
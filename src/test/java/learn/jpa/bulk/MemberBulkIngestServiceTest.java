@@ -0,0 +1,43 @@
+package learn.jpa.bulk;
+
+import learn.jpa.model.Member;
+import learn.jpa.model.Team;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(MemberBulkIngestService.class)
+class MemberBulkIngestServiceTest {
+    private final MemberBulkIngestService memberBulkIngestService;
+    private final TestEntityManager entityManager;
+
+    MemberBulkIngestServiceTest(MemberBulkIngestService memberBulkIngestService, TestEntityManager entityManager) {
+        this.memberBulkIngestService = memberBulkIngestService;
+        this.entityManager = entityManager;
+    }
+
+    @Test
+    @DisplayName("청크_단위로_적재하고_팀은_이름당_한_번만_저장")
+    void ingest() {
+        IngestResult result = memberBulkIngestService.ingest(IntStream.range(0, 25)
+                                                                      .mapToObj(i -> MemberImport.of("member" + i, 20 + i, "team" + i % 3)), 10);
+
+        assertThat(result).extracting("rows", "createdTeams", "chunks")
+                          .containsExactly(25L, 3L, 3L);
+        assertThat(count(Member.class)).isEqualTo(25);
+        assertThat(count(Team.class)).isEqualTo(3);
+    }
+
+    private long count(Class<?> entityClass) {
+        return entityManager.getEntityManager()
+                            .createQuery("select count(e) from " + entityClass.getSimpleName() + " e", Long.class)
+                            .getSingleResult();
+    }
+}
@@ -0,0 +1,80 @@
+package learn.jpa.bulk;
+
+import learn.jpa.model.Simple;
+import learn.jpa.repository.SimpleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 작업 스레드가 별도의 커넥션으로 읽으므로 테스트 데이터를 커밋한다
+@DataJpaTest
+@Import(PartitionedScanService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PartitionedScanServiceTest {
+    private final PartitionedScanService partitionedScanService;
+    private final SimpleRepository simpleRepository;
+
+    private List<Long> ids;
+
+    PartitionedScanServiceTest(PartitionedScanService partitionedScanService, SimpleRepository simpleRepository) {
+        this.partitionedScanService = partitionedScanService;
+        this.simpleRepository = simpleRepository;
+    }
+
+    @BeforeEach
+    void setUp() {
+        ids = simpleRepository.saveAll(IntStream.range(0, 30)
+                                                .mapToObj(i -> Simple.createSimple("simple" + i, i))
+                                                .collect(Collectors.toList()))
+                              .stream()
+                              .map(Simple::getId)
+                              .sorted()
+                              .collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        simpleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("구간_순서대로_콜백을_호출")
+    void scanOrdered() {
+        List<IdRange> ranges = new ArrayList<>();
+        List<Long> scanned = new ArrayList<>();
+
+        ScanResult result = partitionedScanService.scan(Simple.class, 7, ScanCompletion.ORDERED, (range, rows) -> {
+            ranges.add(range);
+            rows.forEach(simple -> scanned.add(simple.getId()));
+        });
+
+        assertThat(result.getRows()).isEqualTo(30);
+        assertThat(ranges).extracting(IdRange::getFrom).isSorted();
+        assertThat(scanned).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    @DisplayName("끝난_구간부터_콜백을_호출")
+    void scanUnordered() {
+        ConcurrentLinkedQueue<Long> scanned = new ConcurrentLinkedQueue<>();
+
+        ScanResult result = partitionedScanService.scan(Simple.class, 7, ScanCompletion.UNORDERED,
+                                                        (range, rows) -> rows.forEach(simple -> scanned.add(simple.getId())));
+
+        assertThat(result.getRows()).isEqualTo(30);
+        assertThat(scanned).containsExactlyInAnyOrderElementsOf(ids);
+    }
+}
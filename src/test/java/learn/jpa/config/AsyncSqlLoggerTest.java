@@ -0,0 +1,37 @@
+package learn.jpa.config;
+
+import com.p6spy.engine.logging.Category;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncSqlLoggerTest {
+    private final AsyncSqlLogger logger = new AsyncSqlLogger();
+    private final SqlLogPipeline pipeline = SqlLogPipeline.getInstance();
+
+    @Test
+    @DisplayName("실행된_SQL_은_파이프라인에_전달")
+    void logSQL() {
+        long offered = offered();
+
+        logger.logSQL(1, "", 0, Category.STATEMENT, "select 1", "select 1", "jdbc:h2:mem:test");
+
+        assertThat(offered()).isEqualTo(offered + 1);
+    }
+
+    @Test
+    @DisplayName("빈_SQL_은_파이프라인에_전달하지_않음")
+    void logSQL_blank() {
+        long offered = offered();
+
+        logger.logSQL(1, "", 0, Category.STATEMENT, "", " ", "jdbc:h2:mem:test");
+
+        assertThat(offered()).isEqualTo(offered);
+    }
+
+    // 파이프라인이 시작되지 않았다면 버려지므로 두 값을 합쳐서 확인한다
+    private long offered() {
+        return pipeline.getEnqueued() + pipeline.getDropped();
+    }
+}
@@ -0,0 +1,83 @@
+package learn.jpa.config;
+
+import learn.jpa.fixture.CallSites;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CallSiteResolverTest {
+    private final CallSiteResolver resolver = CallSiteResolver.getInstance();
+
+    @AfterEach
+    void tearDown() {
+        resolver.configure(new SqlLoggingProperties.CallStack());
+    }
+
+    @Test
+    @DisplayName("설정한_깊이만큼만_프레임을_수집")
+    void capture_depth() {
+        resolver.configure(callStack(3, 10));
+
+        CallSite callSite = CallSites.nested(10);
+
+        assertThat(callSite.getFrames()).hasSize(3);
+        assertThat(resolver.format(callSite).split(System.lineSeparator())).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("SQL_로깅_인프라와_프레임워크_프레임은_제외")
+    void capture_filter() {
+        CallSite callSite = CallSites.capture();
+
+        // 이 테스트 클래스(learn.jpa.config)와 JUnit 프레임은 제외된다
+        assertThat(callSite.getFrames())
+                .extracting(StackWalker.StackFrame::getClassName)
+                .containsExactly(CallSites.class.getName());
+    }
+
+    @Test
+    @DisplayName("가장_바깥쪽_프레임이_1번")
+    void format_order() {
+        String[] callStack = resolver.format(CallSites.nested(2)).split(System.lineSeparator());
+
+        assertThat(callStack).hasSize(4);
+        assertThat(callStack[1]).contains("1. ", "CallSites.nested");
+        assertThat(callStack[3]).contains("3. ", "CallSites.capture");
+    }
+
+    @Test
+    @DisplayName("같은_호출_위치는_캐싱된_콜_스택을_재사용")
+    void format_cache() {
+        resolver.configure(callStack(20, 10));
+        CallSite first = CallSites.capture();
+        CallSite second = CallSites.capture();
+
+        String formatted = resolver.format(first);
+
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+        assertThat(resolver.format(second)).isSameAs(formatted);
+        assertThat(resolver.getCacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시_상한에_도달하면_새로운_호출_위치는_캐싱하지_않음")
+    void format_cacheSize() {
+        resolver.configure(callStack(20, 1));
+        resolver.format(CallSites.capture());
+        CallSite elsewhere = CallSites.captureElsewhere();
+
+        String formatted = resolver.format(elsewhere);
+
+        assertThat(resolver.format(elsewhere)).isEqualTo(formatted).isNotSameAs(formatted);
+        assertThat(resolver.getCacheSize()).isEqualTo(1);
+    }
+
+    private SqlLoggingProperties.CallStack callStack(int depth, int cacheSize) {
+        SqlLoggingProperties.CallStack callStack = new SqlLoggingProperties.CallStack();
+        callStack.setDepth(depth);
+        callStack.setCacheSize(cacheSize);
+        return callStack;
+    }
+}
@@ -0,0 +1,64 @@
+package learn.jpa.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormattedSqlCacheTest {
+    private static final String PREPARED = "select member0_.id as id1_3_, member0_.name as name2_3_ from member member0_ where member0_.name=? and member0_.age=?";
+
+    @Test
+    @DisplayName("실행된_SQL_에서_파라미터를_추출")
+    void extractParameters() {
+        String sql = "select member0_.id as id1_3_, member0_.name as name2_3_ from member member0_ where member0_.name='it''s siro' and member0_.age=29";
+
+        List<String> parameters = FormattedSqlCache.extractParameters(PREPARED, sql);
+
+        assertThat(parameters).containsExactly("'it''s siro'", "29");
+    }
+
+    @Test
+    @DisplayName("Prepared_Statement_와_맞지_않으면_null")
+    void extractParameters_mismatch() {
+        String sql = "select member0_.id as id1_3_ from member member0_ where member0_.name='siro'";
+
+        assertThat(FormattedSqlCache.extractParameters(PREPARED, sql)).isNull();
+    }
+
+    @Test
+    @DisplayName("같은_Prepared_Statement_는_캐시된_템플릿에_파라미터만_채움")
+    void format() {
+        FormattedSqlCache cache = FormattedSqlCache.getInstance();
+        cache.configure(new SqlLoggingProperties.FormatCache());
+        CacheStats before = cache.getCache().stats();
+
+        String first = cache.format(PREPARED, PREPARED.replaceFirst("\\?", "'siro'").replaceFirst("\\?", "29"));
+        String second = cache.format(PREPARED, PREPARED.replaceFirst("\\?", "'sophia'").replaceFirst("\\?", "32"));
+
+        // 캐시는 교체되지 않고 통계가 누적되므로 증가분으로 확인한다
+        CacheStats stats = cache.getCache().stats().minus(before);
+        assertThat(first).contains("'SIRO'", "29");
+        assertThat(second).contains("'SOPHIA'", "32");
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("설정을_바꿔도_메트릭이_바인딩된_캐시_인스턴스는_유지")
+    void configure() {
+        FormattedSqlCache cache = FormattedSqlCache.getInstance();
+        Object bound = cache.getCache();
+        SqlLoggingProperties.FormatCache properties = new SqlLoggingProperties.FormatCache();
+        properties.setMaxWeight(1024);
+
+        cache.configure(properties);
+
+        assertThat(cache.getCache()).isSameAs(bound);
+        assertThat(cache.getCache().policy().eviction().orElseThrow().getMaximum()).isEqualTo(1024);
+        cache.configure(new SqlLoggingProperties.FormatCache());
+    }
+}
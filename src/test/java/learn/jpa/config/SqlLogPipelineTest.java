@@ -0,0 +1,133 @@
+package learn.jpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlLogPipelineTest {
+    private static final int BLOCKING = 0;
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    // connectionId 가 BLOCKING 인 로그를 포맷팅하는 동안 writer 스레드를 붙잡아 둔다
+    private final SqlLogPipeline pipeline = new SqlLogPipeline(event -> {
+        if (event.getConnectionId() == BLOCKING) {
+            entered.countDown();
+            await(release);
+        }
+        return event.getSql();
+    });
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pipeline.stop();
+    }
+
+    @Test
+    @DisplayName("쌓인_로그를_배치_크기만큼_묶어서_출력")
+    void batch() {
+        pipeline.start(async(100, 3));
+        pipeline.offer(event(BLOCKING));
+        await(entered);
+        for (int i = 1; i <= 6; i++) {
+            pipeline.offer(event(i));
+        }
+
+        release.countDown();
+        waitUntil(() -> pipeline.getWritten() == 7);
+
+        // 처음 1건, 이후 6건은 3건씩 2번
+        assertThat(pipeline.getBatches()).isEqualTo(3);
+        assertThat(pipeline.getEnqueued()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("큐가_가득_차면_JDBC_스레드를_블로킹하지_않고_버림")
+    void offer_full() {
+        pipeline.start(async(1, 1));
+        pipeline.offer(event(BLOCKING));
+        await(entered);
+
+        pipeline.offer(event(1));
+        pipeline.offer(event(2));
+
+        assertThat(pipeline.getEnqueued()).isEqualTo(2);
+        assertThat(pipeline.getDropped()).isEqualTo(1);
+        assertThat(pipeline.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("종료할_때_큐에_남은_로그를_모두_출력")
+    void stop() {
+        pipeline.start(async(100, 100));
+        pipeline.offer(event(BLOCKING));
+        await(entered);
+        for (int i = 1; i <= 4; i++) {
+            pipeline.offer(event(i));
+        }
+
+        release.countDown();
+        pipeline.stop();
+
+        assertThat(pipeline.getWritten()).isEqualTo(5);
+        assertThat(pipeline.getQueueSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("종료된_뒤의_로그는_writer_스레드를_다시_시작하지_않고_버림")
+    void offer_afterStop() {
+        pipeline.start(async(100, 100));
+        pipeline.stop();
+
+        pipeline.offer(event(1));
+
+        assertThat(pipeline.getDropped()).isEqualTo(1);
+        assertThat(pipeline.getEnqueued()).isZero();
+        assertThat(pipeline.getQueueSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("시작_전의_로그는_버림")
+    void offer_beforeStart() {
+        pipeline.offer(event(1));
+
+        assertThat(pipeline.getDropped()).isEqualTo(1);
+        assertThat(pipeline.getQueueSize()).isZero();
+    }
+
+    private SqlLoggingProperties.Async async(int queueCapacity, int batchSize) {
+        SqlLoggingProperties.Async async = new SqlLoggingProperties.Async();
+        async.setQueueCapacity(queueCapacity);
+        async.setBatchSize(batchSize);
+        return async;
+    }
+
+    private SqlLogEvent event(int connectionId) {
+        return new SqlLogEvent(connectionId, 0, "statement", "select 1", "select 1", new CallSite(List.of()));
+    }
+
+    // 종료 시 writer 스레드가 인터럽트되더라도 남은 로그를 출력할 수 있도록 인터럽트 상태만 복구한다
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
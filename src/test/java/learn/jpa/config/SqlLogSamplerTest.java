@@ -0,0 +1,48 @@
+package learn.jpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlLogSamplerTest {
+    private final SqlLogSampler sampler = SqlLogSampler.getInstance();
+
+    @AfterEach
+    void tearDown() {
+        sampler.configure(new SqlLoggingProperties.Sampling());
+    }
+
+    @Test
+    @DisplayName("같은_형태의_SQL_은_N번_중_1번만_로깅")
+    void shouldLog() {
+        sampler.configure(sampling(3));
+
+        long logged = IntStream.range(0, 9)
+                               .filter(i -> sampler.shouldLog("select * from member where id = " + i, 0))
+                               .count();
+
+        assertThat(logged).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("임계치를_넘은_SQL_은_항상_로깅")
+    void shouldLog_slow() {
+        sampler.configure(sampling(1_000));
+        sampler.shouldLog("select * from member", 0);
+
+        assertThat(sampler.shouldLog("select * from member", 0)).isFalse();
+        assertThat(sampler.shouldLog("select * from member", 500)).isTrue();
+    }
+
+    private SqlLoggingProperties.Sampling sampling(long rate) {
+        SqlLoggingProperties.Sampling sampling = new SqlLoggingProperties.Sampling();
+        sampling.setEnabled(true);
+        sampling.setAdaptive(false);
+        sampling.setRate(rate);
+        return sampling;
+    }
+}
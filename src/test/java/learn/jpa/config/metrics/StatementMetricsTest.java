@@ -0,0 +1,57 @@
+package learn.jpa.config.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementMetricsTest {
+    @Test
+    @DisplayName("리터럴만_다른_SQL_은_하나의_통계로_합산")
+    void recordExecution() {
+        StatementMetrics metrics = new StatementMetrics(new SqlMetricsProperties());
+
+        metrics.recordExecution("select * from member where id = 1", () -> "", 1_000_000, false);
+        metrics.recordExecution("select * from member where id = 2", () -> "", 3_000_000, false);
+        metrics.recordRows("select * from member where id = 2", 1);
+
+        List<StatementStats> statements = metrics.getStatements();
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0).getSql()).isEqualTo("select * from member where id = ?");
+        assertThat(statements.get(0).toMap()).containsEntry("count", 2L)
+                                             .containsEntry("rows", 1L)
+                                             .containsEntry("maxMs", 3.0);
+    }
+
+    @Test
+    @DisplayName("임계치를_넘은_SQL_은_슬로우_쿼리로_기록")
+    void slowQuery() {
+        SqlMetricsProperties properties = new SqlMetricsProperties();
+        properties.setSlowQueryThreshold(Duration.ofMillis(10));
+        properties.setSlowQueryCapacity(2);
+        StatementMetrics metrics = new StatementMetrics(properties);
+
+        metrics.recordExecution("select 1", () -> "select 1", 5_000_000, false);
+        metrics.recordExecution("select 2", () -> "select 2", 20_000_000, false);
+        metrics.recordExecution("select 3", () -> "select 3", 30_000_000, false);
+        metrics.recordExecution("select 4", () -> "select 4", 40_000_000, false);
+
+        assertThat(metrics.getSlowQueries()).extracting("sql")
+                                            .containsExactly("select 4", "select 3");
+    }
+
+    @Test
+    @DisplayName("백분위수는_버킷_정밀도_안에서_근사")
+    void percentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 100L);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50)).isBetween(5_000L, 5_000L + 5_000L / 8);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(10_000L);
+    }
+}
@@ -0,0 +1,48 @@
+package learn.jpa.config.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicationDataSourcesTest {
+    @Test
+    @DisplayName("지연_확인_쿼리가_없으면_복제본을_사용")
+    void withoutLagQuery() {
+        try (ReplicationDataSources dataSources = dataSources(null)) {
+            assertThat(dataSources.isReplicaAvailable()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("지연이_허용치를_넘거나_확인에_실패하면_복제본을_사용하지_않음")
+    void lag() {
+        try (ReplicationDataSources dataSources = dataSources("select 1")) {
+            assertThat(dataSources.isReplicaAvailable()).isTrue();
+        }
+        try (ReplicationDataSources dataSources = dataSources("select 10")) {
+            assertThat(dataSources.isReplicaAvailable()).isFalse();
+        }
+        try (ReplicationDataSources dataSources = dataSources("select lag from missing_table")) {
+            assertThat(dataSources.isReplicaAvailable()).isFalse();
+        }
+    }
+
+    private static ReplicationDataSources dataSources(String lagQuery) {
+        RoutingDataSourceProperties.Lag lag = new RoutingDataSourceProperties.Lag();
+        lag.setQuery(lagQuery);
+        lag.setMaxLag(Duration.ofSeconds(5));
+        lag.setCheckInterval(Duration.ofMinutes(1));
+        return new ReplicationDataSources(pool("jdbc:h2:mem:lag-primary"), pool("jdbc:h2:mem:lag-replica"), lag);
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+}
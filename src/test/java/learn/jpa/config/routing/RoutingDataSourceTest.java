@@ -0,0 +1,53 @@
+package learn.jpa.config.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// primary, replica 를 서로 다른 H2 인스턴스로 띄우고 DATABASE() 로 어느 쪽에서 실행됐는지 확인한다
+@SpringBootTest(properties = {"datasource-routing.enabled=true",
+                              "spring.datasource.url=jdbc:h2:mem:routing-primary",
+                              "datasource-routing.replica.url=jdbc:h2:mem:routing-replica",
+                              "datasource-routing.replica.username=sa"})
+class RoutingDataSourceTest {
+    private static final String DATABASE = "select database()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate readOnly;
+
+    RoutingDataSourceTest(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("읽기_전용_트랜잭션은_복제본에서_실행")
+    void readOnly() {
+        assertThat(readOnly.execute(status -> database())).containsIgnoringCase("replica");
+    }
+
+    @Test
+    @DisplayName("읽기_쓰기_트랜잭션과_트랜잭션_밖의_SQL_은_primary_에서_실행")
+    void readWrite() {
+        assertThat(readWrite.execute(status -> database())).containsIgnoringCase("primary");
+        assertThat(database()).containsIgnoringCase("primary");
+    }
+
+    @Test
+    @DisplayName("읽기_쓰기_트랜잭션에_참여한_읽기_전용_작업은_primary_에서_실행")
+    void joinReadWrite() {
+        assertThat(readWrite.execute(status -> readOnly.execute(inner -> database()))).containsIgnoringCase("primary");
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject(DATABASE, String.class);
+    }
+}
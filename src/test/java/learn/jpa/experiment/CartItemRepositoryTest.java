@@ -1,12 +1,24 @@
 package learn.jpa.experiment;
 
+import learn.jpa.support.Window;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class CartItemRepositoryTest {
@@ -16,6 +28,9 @@ class CartItemRepositoryTest {
     @Autowired
     CartItemRepository cartItemRepository;
 
+    @Autowired
+    TestEntityManager entityManager;
+
     @BeforeEach
     void setUp() {
         CartItem cartItem = null;
@@ -44,6 +59,78 @@ class CartItemRepositoryTest {
                 .forEach(System.out::println);
     }
 
+    @Test
+    void bulkInsert() throws Exception {
+        long cartItems = cartItemRepository.count();
+        long items = itemRepository.count();
+
+        List<CartItem> bulk = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            CartItem cartItem = CartItem.of(null, new HashSet<>());
+            for (int j = 0; j < 10; j++) {
+                cartItem.addItem(createItem(i * 10 + j));
+            }
+            bulk.add(cartItem);
+        }
+
+        assertThat(cartItemRepository.bulkInsert(bulk)).isEqualTo(150);
+        assertThat(cartItemRepository.count()).isEqualTo(cartItems + 150);
+        assertThat(itemRepository.count()).isEqualTo(items + 1_500);
+    }
+
+    @Test
+    void bulkInsert_presetId() throws Exception {
+        CartItem cartItem = CartItem.of(100_000L, new HashSet<>());
+
+        assertThatThrownBy(() -> cartItemRepository.bulkInsert(List.of(cartItem)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findAllWithItems() throws Exception {
+        // 영속성 컨텍스트에 남은 엔티티가 아니라 페치 플랜으로 아이템을 조회했는지 확인
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<CartItem> page = cartItemRepository.findAllWithItems(PageRequest.of(1, 3, Sort.by("id").descending()));
+
+        assertThat(page.getTotalElements()).isEqualTo(9);
+        assertThat(page.getContent()).hasSize(3)
+                                     .extracting(CartItem::getId)
+                                     .isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(page.getContent()).allMatch(cartItem -> Hibernate.isInitialized(cartItem.getItems()))
+                                     .allMatch(CartItem::isTenBundles);
+    }
+
+    @Test
+    void findAllWithItems_unsorted() throws Exception {
+        List<Long> fetched = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            cartItemRepository.findAllWithItems(PageRequest.of(page, 3))
+                              .forEach(cartItem -> fetched.add(cartItem.getId()));
+        }
+
+        assertThat(fetched).hasSize(9)
+                           .isSorted()
+                           .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void findWindowWithItems() throws Exception {
+        List<CartItem> fetched = new ArrayList<>();
+        Window<CartItem> window = cartItemRepository.findWindowWithItems(null, 4);
+        fetched.addAll(window.getContent());
+        while (window.hasNext()) {
+            window = cartItemRepository.findWindowWithItems(window.getNextCursor(), 4);
+            fetched.addAll(window.getContent());
+        }
+
+        assertThat(fetched).hasSize(9)
+                           .extracting(CartItem::getId)
+                           .isSorted()
+                           .doesNotHaveDuplicates();
+    }
+
     private Item createItem(int itemName) {
         return Item.builder()
                 .name("item" + itemName)
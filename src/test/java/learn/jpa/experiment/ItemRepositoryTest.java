@@ -1,5 +1,6 @@
 package learn.jpa.experiment;
 
+import learn.jpa.support.Window;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @DataJpaTest
 class ItemRepositoryTest {
     @Autowired
@@ -62,6 +65,34 @@ class ItemRepositoryTest {
                 .forEach(System.out::println);
     }
 
+    @Test
+    void findWindowByNameContaining() throws Exception {
+        List<Item> fetched = new ArrayList<>();
+        Window<Item> window = itemRepository.findWindowByNameContaining("item", null, 20);
+        fetched.addAll(window.getContent());
+        while (window.hasNext()) {
+            window = itemRepository.findWindowByNameContaining("item", window.getNextCursor(), 20);
+            fetched.addAll(window.getContent());
+        }
+
+        assertThat(fetched).hasSize(50)
+                           .extracting(Item::getId)
+                           .isSorted()
+                           .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void findWindowByNameContainingOrderByCreatedAtDesc() throws Exception {
+        Window<Item> first = itemRepository.findWindowByNameContainingOrderByCreatedAtDesc("item", null, 30);
+        Window<Item> second = itemRepository.findWindowByNameContainingOrderByCreatedAtDesc("item", first.getNextCursor(), 30);
+
+        assertThat(first.getContent()).hasSize(30);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).hasSize(20);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent()).doesNotContainAnyElementsOf(first.getContent());
+    }
+
     private Item createItem(int itemName) {
         return Item.builder()
                 .name("item" + itemName)
@@ -0,0 +1,28 @@
+package learn.jpa.fixture;
+
+import learn.jpa.config.CallSite;
+import learn.jpa.config.CallSiteResolver;
+
+/**
+ * learn.jpa.config 패키지의 프레임은 호출 위치에서 제외되므로, 애플리케이션 프레임에서 호출 위치를 캡처한다.
+ */
+public class CallSites {
+    private CallSites() {
+    }
+
+    public static CallSite capture() {
+        return CallSiteResolver.getInstance().capture();
+    }
+
+    public static CallSite captureElsewhere() {
+        return CallSiteResolver.getInstance().capture();
+    }
+
+    // depth 개의 프레임을 쌓은 뒤 캡처한다
+    public static CallSite nested(final int depth) {
+        if (depth <= 1) {
+            return capture();
+        }
+        return nested(depth - 1);
+    }
+}
@@ -1,6 +1,7 @@
 package learn.jpa.fixture;
 
 import learn.jpa.config.JpaConfig;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
@@ -11,6 +12,7 @@ import java.lang.annotation.Target;
 
 @DataJpaTest
 @Import(JpaConfig.class)
+@ExtendWith(StrictNPlusOneExtension.class)
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface QuerydslTest {
@@ -0,0 +1,24 @@
+package learn.jpa.fixture;
+
+import learn.jpa.monitor.NPlusOneDetector;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * 테스트 중 N+1 쿼리가 탐지되면 {@link learn.jpa.monitor.NPlusOneQueryException}으로 테스트를 실패시킨다.
+ */
+public class StrictNPlusOneExtension implements BeforeEachCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(StrictNPlusOneExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(NPlusOneDetector.Mode.class, NPlusOneDetector.getMode());
+        NPlusOneDetector.setMode(NPlusOneDetector.Mode.STRICT);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        NPlusOneDetector.setMode(context.getStore(NAMESPACE).remove(NPlusOneDetector.Mode.class, NPlusOneDetector.Mode.class));
+    }
+}
@@ -0,0 +1,73 @@
+package learn.jpa.model;
+
+import learn.jpa.experiment.CartItem;
+import learn.jpa.experiment.CartItemRepository;
+import learn.jpa.experiment.Item;
+import learn.jpa.fixture.Fixture;
+import learn.jpa.fixture.StrictNPlusOneExtension;
+import learn.jpa.repository.MemberRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ExtendWith(StrictNPlusOneExtension.class)
+class BatchFetchTest {
+    private final MemberRepository memberRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TestEntityManager entityManager;
+
+    BatchFetchTest(MemberRepository memberRepository, CartItemRepository cartItemRepository, TestEntityManager entityManager) {
+        this.memberRepository = memberRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Test
+    @DisplayName("프록시_하나를_초기화하면_나머지_팀도_함께_조회")
+    void team() {
+        Fixture fixture = Fixture.getInstance();
+        List<Member> members = fixture.createMembers();
+        members.forEach(member -> member.changeTeam(fixture.createTeam()));
+        memberRepository.saveAllAndFlush(members);
+        entityManager.clear();
+
+        List<Member> found = memberRepository.findAll();
+        found.get(0).getTeam().getName();
+
+        assertThat(found).allMatch(member -> Hibernate.isInitialized(member.getTeam()));
+    }
+
+    @Test
+    @DisplayName("컬렉션_하나를_초기화하면_나머지_컬렉션도_함께_조회")
+    void items() {
+        cartItemRepository.saveAllAndFlush(IntStream.range(0, 5)
+                                                    .mapToObj(i -> CartItem.of(null, new HashSet<>(List.of(createItem(i)))))
+                                                    .collect(Collectors.toList()));
+        entityManager.clear();
+
+        List<CartItem> found = cartItemRepository.findAll();
+        found.get(0).getItems().size();
+
+        assertThat(found).allMatch(cartItem -> Hibernate.isInitialized(cartItem.getItems()));
+    }
+
+    private Item createItem(int i) {
+        return Item.builder()
+                   .name("item" + i)
+                   .description("item description")
+                   .createdAt(LocalDateTime.now())
+                   .build();
+    }
+}
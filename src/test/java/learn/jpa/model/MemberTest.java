@@ -78,4 +78,18 @@ class MemberTest {
     void entityGraph() throws Exception{
         memberRepository.findByName("siro");
     }
+
+    @Test
+    @DisplayName("자연_키로_조회하고_이름이_바뀌면_새_이름으로_조회")
+    void loadByName() {
+        Member member = memberRepository.saveAndFlush(Member.createMember("siro", 29));
+
+        assertThat(memberRepository.loadByName("siro")).containsSame(member);
+
+        member.changeName("sophia");
+        memberRepository.flush();
+
+        assertThat(memberRepository.loadByName("siro")).isEmpty();
+        assertThat(memberRepository.loadByName("sophia")).containsSame(member);
+    }
 }
@@ -0,0 +1,58 @@
+package learn.jpa.monitor;
+
+import learn.jpa.fixture.Fixture;
+import learn.jpa.fixture.StrictNPlusOneExtension;
+import learn.jpa.model.Member;
+import learn.jpa.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 배치 페치는 지연 로딩을 IN 쿼리 하나로 묶으므로 N+1 을 재현하기 위해 끈다
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.default_batch_fetch_size=1")
+@ExtendWith(StrictNPlusOneExtension.class)
+class NPlusOneDetectorTest {
+    private final MemberRepository memberRepository;
+    private final TestEntityManager entityManager;
+
+    NPlusOneDetectorTest(MemberRepository memberRepository, TestEntityManager entityManager) {
+        this.memberRepository = memberRepository;
+        this.entityManager = entityManager;
+    }
+
+    @BeforeEach
+    void setUp() {
+        Fixture fixture = Fixture.getInstance();
+        List<Member> members = fixture.createMembers();
+        members.forEach(member -> member.changeTeam(fixture.createTeam()));
+        memberRepository.saveAllAndFlush(members);
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("지연_로딩으로_팀을_하나씩_조회하면_N+1_로_탐지")
+    void lazyLoading() {
+        List<Member> members = memberRepository.findAll();
+
+        assertThatThrownBy(() -> members.forEach(member -> member.getTeam().getName()))
+                .isInstanceOf(NPlusOneQueryException.class)
+                .extracting("suspect.table")
+                .isEqualTo("team");
+    }
+
+    @Test
+    @DisplayName("엔티티_그래프로_함께_조회하면_탐지되지_않음")
+    void entityGraph() {
+        Member member = memberRepository.findByName("siro");
+
+        assertThat(member.getTeam().getName()).isEqualTo("querydsl");
+    }
+}
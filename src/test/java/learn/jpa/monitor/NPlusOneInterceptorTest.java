@@ -0,0 +1,39 @@
+package learn.jpa.monitor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// MockMvc 는 요청을 호출한 스레드에서 디스패치하므로 테스트 스레드에 남은 스코프로 누수를 확인한다
+@SpringBootTest(properties = "external-api.latency=10ms")
+@AutoConfigureMockMvc
+class NPlusOneInterceptorTest {
+    @Autowired MockMvc mvc;
+
+    @Test
+    @DisplayName("비동기_요청은_요청_스레드를_반납할_때_스코프를_닫는다")
+    void asyncRequest() throws Exception {
+        MvcResult result = mvc.perform(get("/test"))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+
+        assertThat(NPlusOneDetector.isScopeOpen()).isFalse();
+
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isOk())
+           .andExpect(content().string("hi"));
+
+        assertThat(NPlusOneDetector.isScopeOpen()).isFalse();
+    }
+}
@@ -0,0 +1,64 @@
+package learn.jpa.monitor;
+
+import learn.jpa.transaction.controller.MemberController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryBudgetContextTest {
+    // @QueryBudget(maxStatements = 1, maxDbTimeMillis = 100)
+    private static final QueryBudget BUDGET = budget();
+
+    @AfterEach
+    void tearDown() {
+        QueryBudgetContext.end();
+    }
+
+    @Test
+    @DisplayName("실행된_SQL_개수와_DB_시간을_누적")
+    void accumulate() {
+        QueryBudgetContext.start("getMember", BUDGET, false);
+        QueryBudgetContext context = QueryBudgetContext.current();
+
+        context.beforeStatement();
+        context.afterStatement(TimeUnit.MILLISECONDS.toNanos(60));
+        context.beforeStatement();
+        context.afterStatement(TimeUnit.MILLISECONDS.toNanos(60));
+
+        assertThat(context.getStatements()).isEqualTo(2);
+        assertThat(context.getDbTimeMillis()).isEqualTo(120);
+        assertThat(context.isStatementsExceeded()).isTrue();
+        assertThat(context.isDbTimeExceeded()).isTrue();
+        assertThat(QueryBudgetContext.end()).isSameAs(context);
+        assertThat(QueryBudgetContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("fail-fast_면_예산을_넘게_되는_SQL_을_실행_전에_거부")
+    void failFast() {
+        QueryBudgetContext.start("getMember", BUDGET, true);
+        QueryBudgetContext context = QueryBudgetContext.current();
+
+        context.beforeStatement();
+        context.afterStatement(TimeUnit.MILLISECONDS.toNanos(150));
+
+        assertThatThrownBy(context::beforeStatement)
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("statement budget 1");
+    }
+
+    private static QueryBudget budget() {
+        try {
+            return MemberController.class.getMethod("getMember", Optional.class).getAnnotation(QueryBudget.class);
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package learn.jpa.monitor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import learn.jpa.model.Member;
+import learn.jpa.model.Team;
+import learn.jpa.repository.MemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MemberController.getMember 의 {@code @QueryBudget(maxStatements = 1)} 을 LOG 모드로 검증한다.
+ * <p>
+ * 2차 캐시를 끄고, 응답을 직렬화할 때 지연 로딩된 팀을 조회하게 해서 예산을 넘기는 요청을 만든다.
+ */
+@SpringBootTest(properties = {"query-budget.action=log",
+                              "spring.datasource.url=jdbc:h2:mem:query-budget",
+                              "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                              "spring.jpa.properties.hibernate.enable_lazy_load_no_trans=true",
+                              "spring.jackson.serialization.fail-on-empty-beans=false"})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+    @Autowired MockMvc mvc;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("예산_안의_요청은_위반으로_기록하지_않음")
+    void withinBudget() throws Exception {
+        Member member = memberRepository.save(Member.createMember("budget-within", 29));
+        double before = violations();
+
+        mvc.perform(get("/members/" + member.getId()))
+           .andExpect(status().isOk());
+
+        assertThat(violations()).isEqualTo(before);
+        assertThat(QueryBudgetContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("예산을_넘긴_요청은_응답하고_위반_메트릭을_기록")
+    void overBudget() throws Exception {
+        Member member = Member.createMember("budget-over", 29);
+        member.changeTeam(new Team("budget-team"));
+        memberRepository.save(member);
+        double before = violations();
+
+        // 회원 조회 1번 + 직렬화 중 팀 지연 로딩 1번
+        mvc.perform(get("/members/" + member.getId()))
+           .andExpect(status().isOk());
+
+        assertThat(violations()).isEqualTo(before + 1);
+        assertThat(QueryBudgetContext.current()).isNull();
+    }
+
+    private double violations() {
+        Counter counter = meterRegistry.find("query.budget.violations")
+                                       .tags("endpoint", "MemberController.getMember", "type", "statements")
+                                       .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
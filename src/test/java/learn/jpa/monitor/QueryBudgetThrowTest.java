@@ -0,0 +1,56 @@
+package learn.jpa.monitor;
+
+import learn.jpa.model.Member;
+import learn.jpa.model.Team;
+import learn.jpa.repository.MemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * THROW 모드에서는 예산을 넘게 되는 SQL 을 실행하기 전에 막는다.
+ *
+ * @see QueryBudgetTest
+ */
+@SpringBootTest(properties = {"query-budget.action=throw",
+                              "spring.datasource.url=jdbc:h2:mem:query-budget-throw",
+                              "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                              "spring.jpa.properties.hibernate.enable_lazy_load_no_trans=true",
+                              "spring.jackson.serialization.fail-on-empty-beans=false"})
+@AutoConfigureMockMvc
+class QueryBudgetThrowTest {
+    @Autowired MockMvc mvc;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    @DisplayName("예산_안의_요청은_그대로_응답")
+    void withinBudget() throws Exception {
+        Member member = memberRepository.save(Member.createMember("throw-within", 29));
+
+        mvc.perform(get("/members/" + member.getId()))
+           .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("예산을_넘게_되는_SQL_은_실행하기_전에_거부")
+    void overBudget() throws Exception {
+        Member member = Member.createMember("throw-over", 29);
+        member.changeTeam(new Team("throw-team"));
+        memberRepository.save(member);
+
+        MvcResult result = mvc.perform(get("/members/" + member.getId()))
+                              .andExpect(status().isInternalServerError())
+                              .andReturn();
+
+        assertThat(result.getResolvedException()).hasRootCauseInstanceOf(QueryBudgetExceededException.class);
+        assertThat(QueryBudgetContext.current()).isNull();
+    }
+}
@@ -0,0 +1,128 @@
+package learn.jpa.querydsl;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import learn.jpa.fixture.Fixture;
+import learn.jpa.fixture.QuerydslTest;
+import learn.jpa.model.Member;
+import learn.jpa.model.Team;
+import learn.jpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static learn.jpa.model.QMember.member;
+import static learn.jpa.model.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 읽기 쓰기 트랜잭션에서는 캐시를 사용하지 않으므로 테스트 트랜잭션 없이 데이터를 커밋한다
+@QuerydslTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryResultCacheTest {
+    private final MemberRepository memberRepository;
+    private final JPAQueryFactory queryFactory;
+    private final QueryResultCache queryResultCache;
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate readOnly;
+
+    QueryResultCacheTest(MemberRepository memberRepository, JPAQueryFactory queryFactory, QueryResultCache queryResultCache,
+                         PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.queryFactory = queryFactory;
+        this.queryResultCache = queryResultCache;
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @BeforeEach
+    void setUp() {
+        queryResultCache.invalidateAll();
+        Fixture fixture = Fixture.getInstance();
+        Team team = fixture.createTeam();
+        List<Member> members = fixture.createMembers();
+        members.forEach(member -> member.changeTeam(team));
+        memberRepository.saveAll(members);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readWrite.executeWithoutResult(status -> {
+            queryFactory.delete(member).execute();
+            queryFactory.delete(team).execute();
+        });
+    }
+
+    @Test
+    @DisplayName("같은_조건의_집계는_캐시에서_조회")
+    void fetch() {
+        List<Tuple> first = queryResultCache.fetch(averageAgeByTeam(20));
+        List<Tuple> second = queryResultCache.fetch(averageAgeByTeam(20));
+        List<Tuple> otherCondition = queryResultCache.fetch(averageAgeByTeam(30));
+
+        assertThat(second).isSameAs(first);
+        assertThat(otherCondition).isNotSameAs(first);
+        assertThat(first.get(0).get(member.count())).isEqualTo(5);
+        assertThat(otherCondition.get(0).get(member.count())).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("엔티티가_변경되면_캐시를_비움")
+    void invalidate() {
+        Integer before = maxAge();
+
+        memberRepository.save(Member.createMember("old", 99));
+        Integer after = maxAge();
+
+        assertThat(before).isEqualTo(41);
+        assertThat(after).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("flush_한_미커밋_데이터는_다른_트랜잭션에_캐시로_공유되지_않음")
+    void uncommittedWrite() {
+        readWrite.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(Member.createMember("uncommitted", 99));
+
+            // 자신이 쓴 데이터는 보이지만 캐싱하지 않는다
+            assertThat(maxAge()).isEqualTo(99);
+            // 다른 트랜잭션은 커밋된 데이터만 본다
+            assertThat(readOnly.execute(inner -> maxAge())).isEqualTo(41);
+
+            status.setRollbackOnly();
+        });
+
+        assertThat(maxAge()).isEqualTo(41);
+        assertThat(readOnly.execute(status -> maxAge())).isEqualTo(41);
+    }
+
+    @Test
+    @DisplayName("엔티티_조회_결과는_캐싱하지_않음")
+    void entityResult() {
+        assertThatThrownBy(() -> queryResultCache.fetch(queryFactory.selectFrom(member)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Integer maxAge() {
+        return queryResultCache.fetchOne(queryFactory.select(member.age.max()).from(member));
+    }
+
+    private JPAQuery<Tuple> averageAgeByTeam(int minAge) {
+        return queryFactory.select(team.name, member.count(), member.age.avg())
+                           .from(member)
+                           .join(member.team, team)
+                           .where(member.age.goe(minAge))
+                           .groupBy(team.name);
+    }
+}
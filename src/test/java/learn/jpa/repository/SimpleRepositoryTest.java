@@ -1,6 +1,8 @@
 package learn.jpa.repository;
 
+import learn.jpa.model.PooledSequenceGenerator;
 import learn.jpa.model.Simple;
+import learn.jpa.support.Window;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +15,8 @@ import org.springframework.data.domain.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.groups.Tuple.tuple;
@@ -21,7 +25,8 @@ import static org.springframework.data.domain.ExampleMatcher.matching;
 import static org.springframework.data.domain.Sort.Order;
 import static org.springframework.data.domain.Sort.by;
 
-@DataJpaTest
+// 테스트마다 시퀀스를 1부터 다시 시작하므로 식별자를 미리 할당받지 않도록 한다
+@DataJpaTest(properties = "spring.jpa.properties." + PooledSequenceGenerator.INCREMENT_SIZE + "=1")
 class SimpleRepositoryTest {
     private final SimpleRepository simpleRepository;
     private final TestEntityManager entityManager;
@@ -45,7 +50,7 @@ class SimpleRepositoryTest {
     @AfterEach
     void tearDown() {
         entityManager.getEntityManager()
-                     .createNativeQuery("ALTER TABLE `SIMPLE` ALTER COLUMN `ID` RESTART WITH 1")
+                     .createNativeQuery("ALTER SEQUENCE SIMPLE_SEQ RESTART WITH 1")
                      .executeUpdate();
     }
 
@@ -544,4 +549,75 @@ class SimpleRepositoryTest {
                                     tuple("siro", 29))
                           .size().isEqualTo(5);
     }
+
+    @Test
+    @DisplayName("커서_이후의_레코드를_id_순으로_조회")
+    void findWindowByName() {
+        simpleRepository.saveAllAndFlush(List.of(Simple.createSimple("siro", 11),
+                                                 Simple.createSimple("siro", 22),
+                                                 Simple.createSimple("siro", 33),
+                                                 Simple.createSimple("siro", 44)));
+
+        Window<Simple> first = simpleRepository.findWindowByName("siro", null, 3);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent()).extracting("age")
+                                      .containsExactly(29, 11, 22);
+
+        Window<Simple> second = simpleRepository.findWindowByName("siro", first.getNextCursor(), 3);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getContent()).extracting("age")
+                                       .containsExactly(33, 44);
+    }
+
+    @Test
+    @DisplayName("커서_이후의_레코드를_이름_순으로_조회")
+    void findWindowByNameStartingWithOrderByName() {
+        simpleRepository.saveAllAndFlush(List.of(Simple.createSimple("sean", 11),
+                                                 Simple.createSimple("sam", 22)));
+
+        Window<Simple> first = simpleRepository.findWindowByNameStartingWithOrderByName("s", null, 3);
+        assertThat(first.getContent()).extracting("name")
+                                      .containsExactly("sam", "sean", "siro");
+
+        Window<Simple> second = simpleRepository.findWindowByNameStartingWithOrderByName("s", first.getNextCursor(), 3);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent()).extracting("name")
+                                       .containsExactly("sophia");
+    }
+
+    @Test
+    @DisplayName("스트림으로_조회하면서_소비한_엔티티는_분리")
+    void streamAllByIdAfter() {
+        try (Stream<Simple> stream = simpleRepository.streamAllByIdAfter(1L, 2)) {
+            List<Simple> simples = stream.collect(Collectors.toList());
+
+            assertThat(simples).extracting("name")
+                               .containsExactly("sophia", "dennis", "james", "michael");
+            assertThat(simples).noneMatch(entityManager.getEntityManager()::contains);
+        }
+    }
+
+    @Test
+    @DisplayName("같은_이름을_스트림으로_id_순서대로_조회")
+    void streamAllByName() {
+        simpleRepository.saveAndFlush(Simple.createSimple("siro", 77));
+
+        try (Stream<Simple> stream = simpleRepository.streamAllByName("siro")) {
+            List<Simple> simples = stream.collect(Collectors.toList());
+
+            assertThat(simples).extracting("name", "age")
+                               .containsExactly(tuple("siro", 29), tuple("siro", 77));
+            assertThat(simples).noneMatch(entityManager.getEntityManager()::contains);
+        }
+    }
+
+    @Test
+    @DisplayName("fetchSize_를_생략하면_기본값으로_조회")
+    void streamAllByIdAfter_defaultFetchSize() {
+        try (Stream<Simple> stream = simpleRepository.streamAllByIdAfter(3L)) {
+            assertThat(stream).extracting("name")
+                              .containsExactly("james", "michael");
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package learn.jpa.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import learn.jpa.experiment.Item;
+import learn.jpa.experiment.ItemRepository;
+import learn.jpa.querydsl.QueryResultCache;
+import learn.jpa.support.count.PageCountCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static learn.jpa.experiment.QItem.item;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * QueryResultCache 와 PageCountCache 가 같은 세션 팩토리에 리스너를 등록해도 애플리케이션이 시작되고,
+ * 엔티티가 변경되면 두 캐시가 모두 비워지는지 확인한다.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:entity-change-listener")
+class EntityChangeListenerTest {
+    @Autowired QueryResultCache queryResultCache;
+    @Autowired PageCountCache pageCountCache;
+    @Autowired JPAQueryFactory queryFactory;
+    @Autowired ItemRepository itemRepository;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("엔티티가_변경되면_등록된_모든_캐시를_비움")
+    void register() throws Exception {
+        cacheItems();
+
+        itemRepository.save(createItem());
+
+        assertThat(queryResultCache.getCache().estimatedSize()).isZero();
+        assertThat(pageCountCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("이벤트가_발생하지_않는_벌크_INSERT_도_캐시를_비움")
+    void changed() throws Exception {
+        cacheItems();
+
+        itemRepository.bulkInsert(List.of(createItem(), createItem()));
+
+        assertThat(itemRepository.count()).isEqualTo(2);
+        assertThat(queryResultCache.getCache().estimatedSize()).isZero();
+        assertThat(pageCountCache.size()).isZero();
+    }
+
+    private void cacheItems() throws NoSuchMethodException {
+        queryResultCache.fetchCount(queryFactory.selectFrom(item));
+        pageCountCache.put(new PageCountCache.Key(Item.class,
+                                                  ItemRepository.class.getMethod("findAllByNameContaining", String.class, Pageable.class),
+                                                  List.of("item")),
+                           0, Duration.ofMinutes(1));
+        assertThat(queryResultCache.getCache().estimatedSize()).isEqualTo(1);
+        assertThat(pageCountCache.size()).isEqualTo(1);
+    }
+
+    private Item createItem() {
+        return Item.builder()
+                   .name("item")
+                   .description("item description")
+                   .createdAt(LocalDateTime.now())
+                   .build();
+    }
+}
@@ -0,0 +1,90 @@
+package learn.jpa.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import learn.jpa.fixture.Fixture;
+import learn.jpa.fixture.QuerydslTest;
+import learn.jpa.model.Member;
+import learn.jpa.repository.MemberRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static learn.jpa.model.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@QuerydslTest
+class FetchPlanRegistryTest {
+    private final FetchPlanRegistry fetchPlanRegistry;
+    private final MemberRepository memberRepository;
+    private final JPAQueryFactory queryFactory;
+    private final TestEntityManager entityManager;
+
+    private Long memberId;
+
+    FetchPlanRegistryTest(FetchPlanRegistry fetchPlanRegistry,
+                          MemberRepository memberRepository,
+                          JPAQueryFactory queryFactory,
+                          TestEntityManager entityManager) {
+        this.fetchPlanRegistry = fetchPlanRegistry;
+        this.memberRepository = memberRepository;
+        this.queryFactory = queryFactory;
+        this.entityManager = entityManager;
+    }
+
+    @BeforeEach
+    void setUp() {
+        Fixture fixture = Fixture.getInstance();
+        List<Member> members = fixture.createMembers();
+        members.forEach(member -> member.changeTeam(fixture.createTeam()));
+        memberId = memberRepository.saveAllAndFlush(members).get(0).getId();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("파생_쿼리에_페치_플랜_적용")
+    void derivedQuery() {
+        Member found = memberRepository.findByName("siro");
+
+        assertThat(Hibernate.isInitialized(found.getTeam())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Querydsl_쿼리에_페치_플랜_적용")
+    void querydsl() {
+        List<Member> found = fetchPlanRegistry.apply(queryFactory.selectFrom(member), FetchPlans.MEMBER_WITH_TEAM)
+                                              .fetch();
+
+        assertThat(found).hasSize(5)
+                         .allMatch(member -> Hibernate.isInitialized(member.getTeam()));
+    }
+
+    @Test
+    @DisplayName("식별자_조회에_페치_플랜_적용")
+    void findById() {
+        Member found = fetchPlanRegistry.findById(Member.class, memberId, FetchPlans.MEMBER_WITH_TEAM)
+                                        .orElseThrow();
+
+        assertThat(Hibernate.isInitialized(found.getTeam())).isTrue();
+    }
+
+    @Test
+    @DisplayName("엔티티에_선언되지_않은_플랜은_등록_실패")
+    void undeclared() {
+        assertThatThrownBy(() -> fetchPlanRegistry.declared("member-with-orders"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("member-with-orders");
+    }
+
+    @Test
+    @DisplayName("존재하지_않는_속성을_참조하면_등록_실패")
+    void unknownAttribute() {
+        assertThatThrownBy(() -> fetchPlanRegistry.register("member-with-orders", Member.class, "orders"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Member.orders");
+    }
+}
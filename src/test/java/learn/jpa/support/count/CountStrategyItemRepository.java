@@ -0,0 +1,22 @@
+package learn.jpa.support.count;
+
+import learn.jpa.experiment.Item;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+
+public interface CountStrategyItemRepository extends Repository<Item, Long> {
+    @CountStrategy(value = CountMode.CACHED, slice = "readByNameContaining")
+    Page<Item> findCachedByNameContaining(String name, Pageable pageable);
+
+    @CountStrategy(value = CountMode.ESTIMATED, slice = "readByNameContaining")
+    Page<Item> findEstimatedByNameContaining(String name, Pageable pageable);
+
+    @CountStrategy(value = CountMode.CAPPED, slice = "readByNameContaining", cap = 20, count = "countByNameContaining")
+    Page<Item> findCappedByNameContaining(String name, Pageable pageable);
+
+    Slice<Item> readByNameContaining(String name, Pageable pageable);
+
+    long countByNameContaining(String name);
+}
@@ -0,0 +1,159 @@
+package learn.jpa.support.count;
+
+import learn.jpa.experiment.Item;
+import learn.jpa.experiment.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 읽기 쓰기 트랜잭션에서는 개수를 캐싱하지 않으므로 테스트 트랜잭션 없이 데이터를 커밋한다
+@DataJpaTest
+@Import(PageCountConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CountStrategyTest {
+    private final CountStrategyItemRepository countStrategyItemRepository;
+    private final ItemRepository itemRepository;
+    private final PageCountCache pageCountCache;
+    private final TableStatistics tableStatistics;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readWrite;
+
+    CountStrategyTest(CountStrategyItemRepository countStrategyItemRepository,
+                      ItemRepository itemRepository,
+                      PageCountCache pageCountCache,
+                      TableStatistics tableStatistics,
+                      JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager) {
+        this.countStrategyItemRepository = countStrategyItemRepository;
+        this.itemRepository = itemRepository;
+        this.pageCountCache = pageCountCache;
+        this.tableStatistics = tableStatistics;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @BeforeEach
+    void setUp() {
+        pageCountCache.invalidate(Item.class);
+        List<Item> items = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            items.add(createItem("item" + i));
+        }
+        itemRepository.saveAll(items);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("캐싱된_개수는_엔티티가_변경될_때까지_유지")
+    void cached() {
+        Page<Item> page = countStrategyItemRepository.findCachedByNameContaining("item", PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(50);
+
+        // 하이버네이트를 거치지 않은 변경은 감지하지 못한다
+        jdbcTemplate.update("insert into item (id, name, description) values (100000, 'item-native', 'desc')");
+        page = countStrategyItemRepository.findCachedByNameContaining("item", PageRequest.of(1, 10));
+        assertThat(page).isInstanceOf(CountedPage.class);
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(50);
+
+        itemRepository.saveAndFlush(createItem("item51"));
+        page = countStrategyItemRepository.findCachedByNameContaining("item", PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(52);
+    }
+
+    @Test
+    @DisplayName("flush_한_미커밋_데이터의_개수는_캐시로_공유되지_않음")
+    void cached_uncommittedWrite() {
+        readWrite.executeWithoutResult(status -> {
+            itemRepository.saveAndFlush(createItem("item51"));
+
+            // 자신이 쓴 데이터는 세지만 캐싱하지 않는다
+            Page<Item> page = countStrategyItemRepository.findCachedByNameContaining("item", PageRequest.of(0, 10));
+            assertThat(page.getTotalElements()).isEqualTo(51);
+            assertThat(pageCountCache.size()).isZero();
+
+            status.setRollbackOnly();
+        });
+
+        Page<Item> page = countStrategyItemRepository.findCachedByNameContaining("item", PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(50);
+        assertThat(pageCountCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("cap_을_넘으면_cap+_로_표시")
+    void capped() {
+        Page<Item> page = countStrategyItemRepository.findCappedByNameContaining("item", PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(20);
+        assertThat(((CountedPage<Item>) page).isExact()).isFalse();
+        assertThat(((CountedPage<Item>) page).getTotalLabel()).isEqualTo("20+");
+    }
+
+    @Test
+    @DisplayName("cap_이하이면_정확한_개수")
+    void cappedUnderCap() {
+        // item1, item10 ~ item19
+        Page<Item> page = countStrategyItemRepository.findCappedByNameContaining("item1", PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(11);
+        // 원래 Page 메서드를 다시 실행하지 않고 count 메서드로 센다
+        assertThat(page).isInstanceOf(CountedPage.class);
+        assertThat(((CountedPage<Item>) page).isExact()).isTrue();
+    }
+
+    @Test
+    @DisplayName("다음_페이지가_있으면_테이블_통계의_추정_행_수")
+    void estimated() {
+        long estimate = tableStatistics.estimate(Item.class);
+        assertThat(estimate).isGreaterThanOrEqualTo(50);
+
+        Page<Item> page = countStrategyItemRepository.findEstimatedByNameContaining("item", PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(Math.max(estimate, 11));
+        assertThat(((CountedPage<Item>) page).getCountMode()).isEqualTo(CountMode.ESTIMATED);
+        assertThat(((CountedPage<Item>) page).isExact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("마지막_페이지이면_조회한_개수로_정확한_개수")
+    void estimatedLastPage() {
+        // item1, item10 ~ item19
+        Page<Item> page = countStrategyItemRepository.findEstimatedByNameContaining("item1", PageRequest.of(1, 10));
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getTotalElements()).isEqualTo(11);
+        assertThat(((CountedPage<Item>) page).isExact()).isTrue();
+    }
+
+    private Item createItem(String name) {
+        return Item.builder()
+                   .name(name)
+                   .description("item description")
+                   .createdAt(LocalDateTime.now())
+                   .build();
+    }
+}
@@ -0,0 +1,111 @@
+package learn.jpa.transaction.proxy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import learn.jpa.model.Member;
+import learn.jpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 작성 스레드가 별도 트랜잭션으로 커밋하므로 테스트 트랜잭션을 사용하지 않는다
+@DataJpaTest
+@Import({TransactionWriterConfig.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {"transaction-writer.threads=1", "transaction-writer.max-attempts=3", "transaction-writer.retry-backoff=10ms"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionActionWriterTest {
+    private final TransactionActionWriter transactionActionWriter;
+    private final MemberRepository memberRepository;
+    private final MeterRegistry meterRegistry;
+
+    TransactionActionWriterTest(TransactionActionWriter transactionActionWriter, MemberRepository memberRepository, MeterRegistry meterRegistry) {
+        this.transactionActionWriter = transactionActionWriter;
+        this.memberRepository = memberRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("대기_중인_작업을_트랜잭션_하나로_묶어_커밋")
+    void batch() throws Exception {
+        long batches = meterRegistry.get("transaction.writer.batch.size").summary().count();
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        // 작성 스레드를 잡아 두는 동안 나머지 작업이 큐에 쌓인다
+        results.add(transactionActionWriter.submit(() -> await(release)));
+        for (int i = 0; i < 10; i++) {
+            String name = "member" + i;
+            results.add(transactionActionWriter.submit(() -> memberRepository.save(Member.createMember(name, 20))));
+        }
+        release.countDown();
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertThat(memberRepository.count()).isEqualTo(10);
+        // 11개 작업을 트랜잭션 2개 이하로 커밋
+        assertThat(meterRegistry.get("transaction.writer.batch.size").summary().count() - batches).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("묶음_안의_작업이_실패해도_나머지는_커밋하고_실패한_작업은_재시도")
+    void retry() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        transactionActionWriter.submit(() -> await(release));
+        CompletableFuture<Void> saved = transactionActionWriter.submit(() -> memberRepository.save(Member.createMember("siro", 29)));
+        CompletableFuture<Void> flaky = transactionActionWriter.submit(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("flaky");
+            }
+            memberRepository.save(Member.createMember("flaky", 29));
+        });
+        release.countDown();
+
+        CompletableFuture.allOf(saved, flaky).get(5, TimeUnit.SECONDS);
+
+        // 묶음 실행 1번 + 단독 실행 2번
+        assertThat(attempts).hasValue(3);
+        assertThat(memberRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("재시도_횟수를_모두_쓰면_예외로_완료")
+    void drop() {
+        double dropped = meterRegistry.get("transaction.writer.dropped").counter().count();
+        CompletableFuture<Void> result = transactionActionWriter.submit(() -> {
+            throw new IllegalStateException("always");
+        });
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get("transaction.writer.dropped").counter().count() - dropped).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
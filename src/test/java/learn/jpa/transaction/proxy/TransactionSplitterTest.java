@@ -0,0 +1,83 @@
+package learn.jpa.transaction.proxy;
+
+import learn.jpa.model.Member;
+import learn.jpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 단계마다 트랜잭션을 커밋하므로 테스트 트랜잭션을 사용하지 않는다
+@DataJpaTest
+@Import({TransactionSplitter.class, TransactionActionProxy.class, TransactionWriterConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionSplitterTest {
+    private final TransactionSplitter transactionSplitter;
+    private final MemberRepository memberRepository;
+
+    TransactionSplitterTest(TransactionSplitter transactionSplitter, MemberRepository memberRepository) {
+        this.transactionSplitter = transactionSplitter;
+        this.memberRepository = memberRepository;
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("외부_호출은_트랜잭션_밖에서_실행하고_상태를_다음_단계로_전달")
+    void execute() {
+        List<Boolean> transactionActive = new ArrayList<>();
+
+        State state = transactionSplitter.flow(new State())
+                                         .inTransaction(s -> {
+                                             transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+                                             s.memberId = memberRepository.save(Member.createMember("siro", 29)).getId();
+                                         })
+                                         .outsideTransaction(s -> {
+                                             transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+                                             s.response = "external-" + s.memberId;
+                                         })
+                                         .inTransaction(s -> memberRepository.findById(s.memberId)
+                                                                             .orElseThrow()
+                                                                             .changeName(s.response))
+                                         .execute();
+
+        assertThat(transactionActive).containsExactly(true, false);
+        assertThat(memberRepository.findById(state.memberId)).get()
+                                                             .extracting(Member::getName)
+                                                             .isEqualTo("external-" + state.memberId);
+    }
+
+    @Test
+    @DisplayName("이후_단계가_실패하면_커밋된_단계를_보상")
+    void compensate() {
+        assertThatThrownBy(() -> transactionSplitter.flow(new State())
+                                                    .inTransaction(s -> s.memberId = memberRepository.save(Member.createMember("siro", 29)).getId())
+                                                    .compensate(s -> memberRepository.deleteById(s.memberId))
+                                                    .outsideTransaction(s -> {
+                                                        throw new IllegalStateException("external api failed");
+                                                    })
+                                                    .execute())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("external api failed");
+
+        assertThat(memberRepository.count()).isZero();
+    }
+
+    private static class State {
+        private Long memberId;
+        private String response;
+    }
+}
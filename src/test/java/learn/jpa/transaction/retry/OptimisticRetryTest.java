@@ -0,0 +1,109 @@
+package learn.jpa.transaction.retry;
+
+import learn.jpa.model.Member;
+import learn.jpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 시도마다 트랜잭션을 커밋하므로 테스트 트랜잭션을 사용하지 않는다
+@DataJpaTest
+@Import({OptimisticRetryConfig.class, OptimisticRetryTest.AgeService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticRetryTest {
+    private static final int THREADS = 4;
+    private static final int INCREMENTS = 10;
+
+    private final AgeService ageService;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+    private final MemberRepository memberRepository;
+
+    OptimisticRetryTest(AgeService ageService, OptimisticRetryTemplate optimisticRetryTemplate, MemberRepository memberRepository) {
+        this.ageService = ageService;
+        this.optimisticRetryTemplate = optimisticRetryTemplate;
+        this.memberRepository = memberRepository;
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("같은_회원을_동시에_수정해도_충돌한_트랜잭션을_다시_실행해_갱신이_유실되지_않는다")
+    void concurrentUpdate() throws Exception {
+        Long memberId = memberRepository.save(Member.createMember("siro", 0)).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < INCREMENTS; j++) {
+                    ageService.increaseAge(memberId);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Member member = memberRepository.findById(memberId).orElseThrow();
+        assertThat(member.getAge()).isEqualTo(THREADS * INCREMENTS);
+        assertThat(member.getVersion()).isEqualTo(THREADS * INCREMENTS);
+    }
+
+    @Test
+    @DisplayName("재시도_횟수를_모두_쓰면_예외를_던진다")
+    void exhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> optimisticRetryTemplate.execute(RetryPolicy.of(3, 1, 1), status -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("백오프는_지수적으로_늘어나고_최댓값을_넘지_않는다")
+    void backoff() {
+        RetryPolicy policy = RetryPolicy.of(10, 10, 100);
+
+        assertThat(policy.backoff(1)).isBetween(5L, 10L);
+        assertThat(policy.backoff(3)).isBetween(20L, 40L);
+        assertThat(policy.backoff(10)).isBetween(50L, 100L);
+    }
+
+    @Component
+    static class AgeService {
+        private final MemberRepository memberRepository;
+
+        AgeService(MemberRepository memberRepository) {
+            this.memberRepository = memberRepository;
+        }
+
+        @OptimisticRetry(maxAttempts = 50, backoffMillis = 1, maxBackoffMillis = 20)
+        @Transactional
+        public void increaseAge(Long memberId) {
+            Member member = memberRepository.findById(memberId).orElseThrow();
+            member.changeAge(member.getAge() + 1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package learn.jpa.transaction.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 외부 API 호출 동안 커넥션 풀 점유율을 비교한다.
+ * <p>
+ * testService: 외부 호출 내내 트랜잭션이 커넥션을 점유한다.
+ * testServiceSplit: 외부 호출 전후의 짧은 트랜잭션에서만 커넥션을 사용한다.
+ */
+@SpringBootTest(properties = {"external-api.latency=500ms",
+                              "spring.datasource.url=jdbc:h2:mem:transaction-split",
+                              "spring.datasource.hikari.maximum-pool-size=10"})
+class TransactionSplitLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(TransactionSplitLoadTest.class);
+    private static final int CONCURRENCY = 4;
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+
+    private final TestService testService;
+    private final HikariPoolMXBean pool;
+
+    TransactionSplitLoadTest(TestService testService, DataSource dataSource) throws SQLException {
+        this.testService = testService;
+        this.pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+    }
+
+    @Test
+    @DisplayName("트랜잭션을_나누면_외부_호출_동안_커넥션을_점유하지_않음")
+    void poolOccupancy() throws Exception {
+        Occupancy single = measure(() -> {
+            testService.testService();
+            return null;
+        });
+        Occupancy split = measure(() -> {
+            testService.testServiceSplit();
+            return null;
+        });
+
+        log.info("single transaction: {}, split transaction: {}", single, split);
+        assertThat(single.peak).isGreaterThanOrEqualTo(CONCURRENCY);
+        assertThat(split.average).isLessThan(single.average / 2);
+    }
+
+    private Occupancy measure(Callable<Void> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(executor.submit(call));
+            }
+            long samples = 0;
+            long total = 0;
+            int peak = 0;
+            while (!futures.stream().allMatch(Future::isDone)) {
+                int active = pool.getActiveConnections();
+                total += active;
+                peak = Math.max(peak, active);
+                samples++;
+                Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            return new Occupancy(samples == 0 ? 0 : (double) total / samples, peak);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Occupancy {
+        private final double average;
+        private final int peak;
+
+        private Occupancy(double average, int peak) {
+            this.average = average;
+            this.peak = peak;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("average active connections %.2f, peak %d", average, peak);
+        }
+    }
+}